@@ -0,0 +1,348 @@
+package driver;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.ConverterFunctions;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.BrowserCache;
+import utils.EnvironmentManager;
+import utils.ProcessMonitor;
+import utils.SystemResources;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of long-lived Chromium browsers that serve each scenario from its own isolated browser context.
+ * <p>
+ * Instead of launching one browser process per scenario, a few host browsers ({@code browser.contexts.processes})
+ * are started on demand. For each scenario the pool creates a new browser context via CDP
+ * ({@code Target.createBrowserContext}), which has its own cookies, storage and cache, opens a page in it, and
+ * attaches a lightweight WebDriver session to the running browser through {@code debuggerAddress}, switched to that
+ * page. Quitting the scenario's driver disposes the context.
+ * <p>
+ * Enabled with {@code browser.contexts.enabled=true}; only applies to local Chrome and Edge. Context creation time
+ * and the host browsers' memory per served scenario are logged when contexts are released and at JVM exit.
+ * A host whose process tree grows above {@code monitor.memory.ceiling.mb} stops taking contexts and is replaced
+ * once its running scenarios have released theirs.
+ */
+public class BrowserContextPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(BrowserContextPool.class);
+
+    private static final boolean ENABLED = Boolean.parseBoolean(EnvironmentManager.get("browser.contexts.enabled", "false"));
+    private static final int PROCESSES = Integer.parseInt(EnvironmentManager.get("browser.contexts.processes", "2"));
+
+    private static final List<Host> hosts = new ArrayList<>();
+    /** Hosts being launched outside the lock, per browser configuration; guarded by the class lock like {@link #hosts}. */
+    private static final Map<String, Integer> launching = new HashMap<>();
+    private static final ThreadLocal<Lease> leases = new ThreadLocal<>();
+
+    private static final LongAdder contextsCreated = new LongAdder();
+    private static final LongAdder contextCreateNanos = new LongAdder();
+    private static final LongAdder hostLaunchNanos = new LongAdder();
+    private static final LongAdder hostsRecycled = new LongAdder();
+    private static final AtomicLong peakMemoryPerContextMb = new AtomicLong();
+
+    static {
+        if (ENABLED) {
+            Runtime.getRuntime().addShutdownHook(new Thread(BrowserContextPool::shutdown, "browser-context-pool-shutdown"));
+        }
+    }
+
+    /**
+     * A long-lived host browser and the DevTools connection used to manage its contexts.
+     */
+    private static final class Host {
+        private final BrowserType type;
+        private final boolean headless;
+        private final WebDriver driver;
+        private final DevTools devTools;
+        private final String debuggerAddress;
+        private final ProcessHandle process;
+        private final AtomicInteger activeContexts = new AtomicInteger();
+        /** Set once the host is over the memory ceiling; it takes no new contexts and quits when drained. */
+        private boolean retired;
+
+        private Host(BrowserType type, boolean headless, WebDriver driver, String debuggerAddress, ProcessHandle process) {
+            this.type = type;
+            this.headless = headless;
+            this.driver = driver;
+            this.devTools = ((HasDevTools) driver).getDevTools();
+            this.debuggerAddress = debuggerAddress;
+            this.process = process;
+        }
+    }
+
+    /**
+     * A scenario's lease on a browser context.
+     */
+    private record Lease(Host host, String browserContextId, WebDriver driver) {
+    }
+
+    /**
+     * Returns whether scenarios for the given browser should be served from pooled browser contexts.
+     *
+     * @param type   the requested browser
+     * @param remote whether Selenium Grid is used
+     * @return true if multi-context mode applies
+     */
+    public static boolean isEnabled(BrowserType type, boolean remote) {
+        return ENABLED && !remote && (type == BrowserType.CHROME || type == BrowserType.EDGE);
+    }
+
+    /**
+     * Creates an isolated browser context on one of the pooled browsers and returns a driver bound to it.
+     *
+     * @param type                   CHROME or EDGE
+     * @param headless               whether host browsers run headless
+     * @param additionalCapabilities extra capabilities for the host browsers
+     * @return a WebDriver whose current window lives in a fresh browser context
+     */
+    public static WebDriver acquire(BrowserType type, boolean headless, Map<String, Object> additionalCapabilities) {
+        Host host = pickHost(type, headless, additionalCapabilities);
+
+        long start = System.nanoTime();
+        String browserContextId = null;
+        WebDriver driver = null;
+        try {
+            browserContextId = host.devTools.send(new Command<String>("Target.createBrowserContext",
+                    Map.of("disposeOnDetach", false), ConverterFunctions.map("browserContextId", String.class)));
+            String targetId = host.devTools.send(new Command<String>("Target.createTarget",
+                    Map.of("url", "about:blank", "browserContextId", browserContextId),
+                    ConverterFunctions.map("targetId", String.class)));
+
+            driver = attach(host);
+            String handle = driver.getWindowHandles().stream()
+                    .filter(h -> h.equalsIgnoreCase(targetId) || h.toUpperCase().endsWith(targetId.toUpperCase()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Window for target " + targetId + " not found"));
+            driver.switchTo().window(handle);
+
+            long elapsed = System.nanoTime() - start;
+            contextsCreated.increment();
+            contextCreateNanos.add(elapsed);
+            leases.set(new Lease(host, browserContextId, driver));
+            ProcessMonitor.track(host.process, true);
+            logger.info("🧩 Browser context created on {} host {} in {} ms (active contexts: {})",
+                    type, host.debuggerAddress, TimeUnit.NANOSECONDS.toMillis(elapsed), host.activeContexts.get());
+            return driver;
+        } catch (RuntimeException e) {
+            if (driver != null) {
+                try {
+                    // Ends the attached session and its chromedriver process; the host browser keeps running
+                    driver.quit();
+                } catch (Exception quitError) {
+                    logger.warn("⚠️ Error detaching context session: {}", quitError.getMessage());
+                }
+            }
+            if (browserContextId != null) {
+                disposeQuietly(host, browserContextId);
+            }
+            host.activeContexts.decrementAndGet();
+            recycleIfOverCeiling(host);
+            throw e;
+        }
+    }
+
+    /**
+     * Releases the browser context leased by the current thread, if any: detaches the scenario's driver session
+     * and disposes the context with all its pages, cookies and storage.
+     *
+     * @return true if the current thread held a pooled context
+     */
+    public static boolean release() {
+        Lease lease = leases.get();
+        if (lease == null) {
+            return false;
+        }
+        leases.remove();
+        try {
+            lease.driver().quit();
+        } catch (Exception e) {
+            logger.warn("⚠️ Error detaching context session: {}", e.getMessage());
+        }
+        disposeQuietly(lease.host(), lease.browserContextId());
+        int active = lease.host().activeContexts.decrementAndGet();
+        reportMemory(lease.host(), active + 1);
+        recycleIfOverCeiling(lease.host());
+        return true;
+    }
+
+    /**
+     * Retires a host whose process tree is above the memory ceiling, and quits it once no scenario uses it.
+     * Runs under the same lock as {@link #pickHost}, so a retired host never receives another context.
+     */
+    private static synchronized void recycleIfOverCeiling(Host host) {
+        if (!host.retired && ProcessMonitor.exceedsCeiling(host.process)) {
+            host.retired = true;
+            logger.info("♻️ Pooled {} host {} is above the {} MB memory ceiling; retiring it", host.type,
+                    host.debuggerAddress, ProcessMonitor.ceilingMb());
+        }
+        if (host.retired && host.activeContexts.get() == 0) {
+            hosts.remove(host);
+            hostsRecycled.increment();
+            try {
+                host.driver.quit();
+                logger.info("♻️ Recycled pooled {} host {}", host.type, host.debuggerAddress);
+            } catch (Exception e) {
+                logger.warn("⚠️ Error quitting retired host {}: {}", host.debuggerAddress, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns a host for the given browser configuration and counts the new context against it. An idle host is
+     * preferred, then a newly launched one while fewer than {@code browser.contexts.processes} exist, otherwise
+     * the host with the fewest active contexts.
+     * <p>
+     * Hosts are launched outside the class lock, so a launch of several seconds does not hold up the acquires and
+     * releases of scenarios on other hosts; the launch slot is reserved under the lock first.
+     */
+    private static Host pickHost(BrowserType type, boolean headless, Map<String, Object> additionalCapabilities) {
+        String key = type + "/" + headless;
+        synchronized (BrowserContextPool.class) {
+            while (true) {
+                List<Host> candidates = hosts.stream()
+                        .filter(h -> h.type == type && h.headless == headless && !h.retired)
+                        .toList();
+                Host host = candidates.stream().filter(h -> h.activeContexts.get() == 0).findFirst().orElse(null);
+                if (host == null && candidates.size() + launching.getOrDefault(key, 0) < PROCESSES) {
+                    launching.merge(key, 1, Integer::sum);
+                    break;
+                }
+                if (host == null && !candidates.isEmpty()) {
+                    host = candidates.stream().min(Comparator.comparingInt(h -> h.activeContexts.get())).orElseThrow();
+                }
+                if (host != null) {
+                    host.activeContexts.incrementAndGet();
+                    return host;
+                }
+                // Every slot is taken by a host still launching; wait for one of them
+                try {
+                    BrowserContextPool.class.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for a pooled host", e);
+                }
+            }
+        }
+
+        Host host = null;
+        try {
+            host = launchHost(type, headless, additionalCapabilities);
+            return host;
+        } finally {
+            synchronized (BrowserContextPool.class) {
+                launching.merge(key, -1, Integer::sum);
+                if (host != null) {
+                    hosts.add(host);
+                    host.activeContexts.incrementAndGet();
+                }
+                BrowserContextPool.class.notifyAll();
+            }
+        }
+    }
+
+    private static Host launchHost(BrowserType type, boolean headless, Map<String, Object> additionalCapabilities) {
+        long start = System.nanoTime();
+        Capabilities options = type.getOptions(headless, additionalCapabilities);
+        WebDriver driver = type.createDriverFromOptions(options);
+        // The host outlives the scenario that launched it; its cache directory is removed at exit
+        BrowserCache.detach();
+        Capabilities actual = ((HasCapabilities) driver).getCapabilities();
+
+        String vendorKey = type == BrowserType.EDGE ? "ms:edgeOptions" : "goog:chromeOptions";
+        String debuggerAddress = String.valueOf(((Map<?, ?>) actual.getCapability(vendorKey)).get("debuggerAddress"));
+
+        String browserKey = type == BrowserType.EDGE ? "msedge" : "chrome";
+        Object userDataDir = actual.getCapability(browserKey) instanceof Map<?, ?> info ? info.get("userDataDir") : null;
+        ProcessHandle process = userDataDir == null ? null
+                : SystemResources.findProcessByArgument("--user-data-dir=" + userDataDir).orElse(null);
+
+        long elapsed = System.nanoTime() - start;
+        hostLaunchNanos.add(elapsed);
+        logger.info("🚀 Launched pooled {} host at {} in {} ms (pid: {})", type, debuggerAddress,
+                TimeUnit.NANOSECONDS.toMillis(elapsed), process == null ? "unknown" : process.pid());
+        return new Host(type, headless, driver, debuggerAddress, process);
+    }
+
+    /**
+     * Opens a new WebDriver session attached to the host browser instead of launching a new one.
+     */
+    private static WebDriver attach(Host host) {
+        if (host.type == BrowserType.EDGE) {
+            EdgeOptions options = new EdgeOptions();
+            attachTo(options, host);
+            return new EdgeDriver(options);
+        }
+        ChromeOptions options = new ChromeOptions();
+        attachTo(options, host);
+        return new ChromeDriver(options);
+    }
+
+    private static void attachTo(ChromiumOptions<?> options, Host host) {
+        options.setExperimentalOption("debuggerAddress", host.debuggerAddress);
+    }
+
+    private static void disposeQuietly(Host host, String browserContextId) {
+        try {
+            host.devTools.send(new Command<Void>("Target.disposeBrowserContext", Map.of("browserContextId", browserContextId)));
+        } catch (Exception e) {
+            logger.warn("⚠️ Failed to dispose browser context {}: {}", browserContextId, e.getMessage());
+        }
+    }
+
+    /**
+     * Logs the host's memory (PSS) divided by the contexts it was serving, as an estimate of memory per scenario.
+     */
+    private static void reportMemory(Host host, int contextsServedConcurrently) {
+        if (host.process == null) {
+            return;
+        }
+        long pss = SystemResources.processTreePssMb(host.process);
+        if (pss < 0) {
+            return;
+        }
+        long perContext = pss / Math.max(1, contextsServedConcurrently);
+        peakMemoryPerContextMb.accumulateAndGet(perContext, Math::max);
+        logger.info("🧩 Host {} PSS {} MB across {} concurrent context(s) ≈ {} MB per scenario",
+                host.debuggerAddress, pss, contextsServedConcurrently, perContext);
+    }
+
+    private static synchronized void shutdown() {
+        long created = contextsCreated.sum();
+        long launched = hosts.size() + hostsRecycled.sum();
+        logger.info("🧩 Context pool summary | hosts: {}, recycled: {}, contexts: {}, avg context create: {} ms, "
+                        + "avg host launch: {} ms, peak memory per scenario: {} MB",
+                launched, hostsRecycled.sum(), created,
+                created == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(contextCreateNanos.sum() / created),
+                launched == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(hostLaunchNanos.sum() / launched),
+                peakMemoryPerContextMb.get());
+        for (Host host : hosts) {
+            try {
+                host.driver.quit();
+            } catch (Exception e) {
+                logger.warn("⚠️ Error quitting pooled host {}: {}", host.debuggerAddress, e.getMessage());
+            }
+        }
+        hosts.clear();
+    }
+}
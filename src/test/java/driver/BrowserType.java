@@ -9,14 +9,14 @@ import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
-import org.openqa.selenium.remote.RemoteWebDriver;
 import org.openqa.selenium.safari.SafariDriver;
 import org.openqa.selenium.safari.SafariOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import utils.BrowserCache;
+import utils.EnvironmentManager;
 
 import java.net.MalformedURLException;
-import java.net.URI;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -32,7 +32,8 @@ import static utils.ConfigUtils.parseWindowSize;
  *     <li>Creating a local {@link WebDriver} instance using those capabilities</li>
  * </ul>
  * <p>
- * Remote execution using Selenium Grid is supported for all browsers except Safari.
+ * Remote execution using Selenium Grid is supported for all browsers except Safari and the experimental
+ * {@link #CHROME_CDP}.
  */
 public enum BrowserType {
 
@@ -51,13 +52,16 @@ public enum BrowserType {
                     "--remote-allow-origins=*"
             );
 
-            int[] size = parseWindowSize(System.getProperty("window.size", "1920,1080"));
-            options.addArguments("--width=" + size[0], "--height=" + size[1]);
+            int[] size = parseWindowSize(EnvironmentManager.get("window.size", "1920,1080"));
+            options.addArguments("--window-size=" + size[0] + "," + size[1]);
 
             if (headless) {
                 options.addArguments("--headless=new", "--disable-gpu", "--no-sandbox", "--disable-dev-shm-usage");
             }
 
+            // Warm disk cache copied from the shared template and pinned DNS (browser.cache.enabled)
+            BrowserCache.apply(options);
+
             if (additionalCapabilities != null) {
                 additionalCapabilities.forEach(options::setCapability);
             }
@@ -71,6 +75,31 @@ public enum BrowserType {
         }
     },
 
+    /**
+     * Experimental: Google Chrome driven directly over the DevTools protocol, without chromedriver.
+     * Uses the {@link #CHROME} options; implements the WebDriver subset described in {@link CdpDriver}.
+     * Local only.
+     */
+    CHROME_CDP {
+        @Override
+        public Capabilities getOptions(boolean headless, Map<String, Object> additionalCapabilities) {
+            return CHROME.getOptions(headless, additionalCapabilities);
+        }
+
+        @Override
+        public WebDriver createDriverFromOptions(Capabilities options) {
+            return CdpDriver.launch((ChromeOptions) options);
+        }
+
+        @Override
+        public WebDriver createDriver(boolean headless, boolean remote, String gridUrl, Map<String, Object> additionalCapabilities) throws MalformedURLException {
+            if (remote) {
+                throw new RuntimeException("❌ CHROME_CDP launches a local Chrome and cannot run on Selenium Grid");
+            }
+            return super.createDriver(headless, false, gridUrl, additionalCapabilities);
+        }
+    },
+
     /**
      * Mozilla Firefox browser.
      * Supports headless mode and standard Firefox options.
@@ -80,7 +109,7 @@ public enum BrowserType {
         public Capabilities getOptions(boolean headless, Map<String, Object> additionalCapabilities) {
             FirefoxOptions options = new FirefoxOptions();
 
-            int[] size = parseWindowSize(System.getProperty("window.size", "1920,1080"));
+            int[] size = parseWindowSize(EnvironmentManager.get("window.size", "1920,1080"));
 
             if (headless) {
                 options.addArguments("--headless", "--width=" + size[0], "--height=" + size[1]);
@@ -110,13 +139,16 @@ public enum BrowserType {
             EdgeOptions options = new EdgeOptions();
             options.addArguments("--disable-extensions", "--disable-popup-blocking", "--disable-notifications");
 
-            int[] size = parseWindowSize(System.getProperty("window.size", "1920,1080"));
-            options.addArguments("--width=" + size[0], "--height=" + size[1]);
+            int[] size = parseWindowSize(EnvironmentManager.get("window.size", "1920,1080"));
+            options.addArguments("--window-size=" + size[0] + "," + size[1]);
 
             if (headless) {
                 options.addArguments("--headless=new", "--disable-gpu", "--no-sandbox", "--disable-dev-shm-usage");
             }
 
+            // Warm disk cache copied from the shared template and pinned DNS (browser.cache.enabled)
+            BrowserCache.apply(options);
+
             if (additionalCapabilities != null) {
                 additionalCapabilities.forEach(options::setCapability);
             }
@@ -178,7 +210,8 @@ public enum BrowserType {
 
     /**
      * Creates a WebDriver instance for the current browser type.
-     * Supports both local and remote (Selenium Grid) execution.
+     * Supports both local and remote (Selenium Grid) execution; remote sessions share the pooled
+     * {@link RemoteTransport}.
      *
      * @param headless                whether the browser should run in headless mode
      * @param remote                  whether to use Selenium Grid (remote) execution
@@ -191,7 +224,7 @@ public enum BrowserType {
         logger.info("🚀 Starting {} browser | headless: {} | remote: {} | gridUrl: {}", this.name(), headless, remote, gridUrl);
         Capabilities options = getOptions(headless, additionalCapabilities);
         if (remote) {
-            return new RemoteWebDriver(URI.create(gridUrl).toURL(), options);
+            return RemoteTransport.newSession(gridUrl, options);
         } else {
             return createDriverFromOptions(options);
         }
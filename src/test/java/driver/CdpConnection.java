@@ -0,0 +1,161 @@
+package driver;
+
+import org.json.JSONObject;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Minimal Chrome DevTools Protocol client over the browser's WebSocket endpoint, used by {@link CdpDriver}.
+ * <p>
+ * Commands are sent with flattened session ids and block until their response arrives; events are delivered to
+ * listeners on the WebSocket thread, so listeners must not send commands themselves.
+ */
+final class CdpConnection implements WebSocket.Listener {
+
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<Long, CompletableFuture<JSONObject>> pending = new ConcurrentHashMap<>();
+    private final Map<String, List<Consumer<JSONObject>>> listeners = new ConcurrentHashMap<>();
+    private final StringBuilder partial = new StringBuilder();
+    private final Duration timeout;
+    private WebSocket socket;
+
+    private CdpConnection(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Connects to a DevTools WebSocket endpoint (e.g., {@code ws://127.0.0.1:9222/devtools/browser/<id>}).
+     *
+     * @param endpoint the WebSocket URL printed by Chrome
+     * @param timeout  how long to wait for each command's response
+     * @return the open connection
+     */
+    static CdpConnection open(URI endpoint, Duration timeout) {
+        CdpConnection connection = new CdpConnection(timeout);
+        connection.socket = HttpClient.newHttpClient().newWebSocketBuilder()
+                .connectTimeout(timeout)
+                .buildAsync(endpoint, connection)
+                .join();
+        return connection;
+    }
+
+    /**
+     * Sends a command and waits for its result.
+     *
+     * @param sessionId the flattened target session, or null for browser-level commands
+     * @param method    the CDP method (e.g., "Page.navigate")
+     * @param params    the command parameters; may be null
+     * @return the command's {@code result} object
+     * @throws WebDriverException if Chrome reports an error or does not answer in time
+     */
+    JSONObject send(String sessionId, String method, JSONObject params) {
+        long id = ids.incrementAndGet();
+        JSONObject message = new JSONObject().put("id", id).put("method", method)
+                .put("params", params != null ? params : new JSONObject());
+        if (sessionId != null) {
+            message.put("sessionId", sessionId);
+        }
+        CompletableFuture<JSONObject> response = new CompletableFuture<>();
+        pending.put(id, response);
+        try {
+            synchronized (this) {
+                // A WebSocket accepts one outstanding send at a time
+                socket.sendText(message.toString(), true).join();
+            }
+            JSONObject reply = response.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            if (reply.has("error")) {
+                throw new WebDriverException("CDP " + method + " failed: " + reply.getJSONObject("error").optString("message"));
+            }
+            return reply.has("result") ? reply.getJSONObject("result") : new JSONObject();
+        } catch (java.util.concurrent.TimeoutException e) {
+            throw new TimeoutException("CDP " + method + " timed out after " + timeout.toMillis() + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting for CDP " + method, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof WebDriverException cause) {
+                throw cause;
+            }
+            throw new WebDriverException("CDP " + method + " failed", e.getCause());
+        } catch (CompletionException e) {
+            throw new WebDriverException("CDP " + method + " could not be sent", e.getCause());
+        } finally {
+            pending.remove(id);
+        }
+    }
+
+    /**
+     * Registers a listener for an event (e.g., "Page.frameStoppedLoading"); it receives the event's params.
+     */
+    void on(String event, Consumer<JSONObject> listener) {
+        listeners.computeIfAbsent(event, key -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    void close() {
+        socket.abort();
+        failPending(new WebDriverException("CDP connection closed"));
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket) {
+        webSocket.request(1);
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        partial.append(data);
+        if (last) {
+            JSONObject message = new JSONObject(partial.toString());
+            partial.setLength(0);
+            dispatch(message);
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        failPending(new WebDriverException("CDP connection closed: " + statusCode + " " + reason));
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        failPending(new WebDriverException("CDP connection failed", error));
+    }
+
+    private void dispatch(JSONObject message) {
+        if (message.has("id")) {
+            CompletableFuture<JSONObject> response = pending.get(message.getLong("id"));
+            if (response != null) {
+                response.complete(message);
+            }
+            return;
+        }
+        List<Consumer<JSONObject>> handlers = listeners.get(message.optString("method"));
+        if (handlers != null) {
+            JSONObject params = message.has("params") ? message.getJSONObject("params") : new JSONObject();
+            handlers.forEach(handler -> handler.accept(params));
+        }
+    }
+
+    private void failPending(WebDriverException error) {
+        pending.values().forEach(response -> response.completeExceptionally(error));
+    }
+}
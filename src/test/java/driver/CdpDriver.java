@@ -0,0 +1,865 @@
+package driver;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.EnvironmentManager;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Experimental WebDriver that drives a local Chrome directly over the DevTools protocol, without chromedriver.
+ * <p>
+ * Chrome is started with {@code --remote-debugging-port=0} and the arguments of {@link BrowserType#CHROME}, and
+ * every WebDriver call becomes one or a few CDP commands on a single WebSocket instead of an HTTP round trip to a
+ * chromedriver process that then speaks CDP itself. Only the subset used by the framework is implemented:
+ * navigation, element lookup (CSS, XPath, link text, tag name), click, typing (text and Enter), clear, visibility,
+ * text and attributes, scripts (arguments and return values as JSON), screenshots, cookies and implicit waits.
+ * Anything else fails with {@link UnsupportedOperationException}.
+ * <p>
+ * Like chromedriver, commands wait for a pending main-frame navigation to finish first. Typing inserts text
+ * without per-character key events, and scripts cannot return elements. Selected with {@code browser=chrome_cdp};
+ * see {@link BrowserType#CHROME_CDP}.
+ */
+final class CdpDriver {
+
+    private static final Logger logger = LoggerFactory.getLogger(CdpDriver.class);
+
+    private static final Pattern DEVTOOLS_ENDPOINT = Pattern.compile("DevTools listening on (ws://\\S+)");
+    private static final Duration COMMAND_TIMEOUT = Duration.ofSeconds(Long.parseLong(EnvironmentManager.get("cdp.command.timeout.seconds", "60")));
+    /** How long a requested main-frame navigation may take to commit before it is considered cancelled. */
+    private static final Duration REQUEST_GRACE = Duration.ofSeconds(2);
+    private static final List<String> CHROME_BINARIES = List.of("google-chrome", "google-chrome-stable", "chromium",
+            "chromium-browser", "/Applications/Google Chrome.app/Contents/MacOS/Google Chrome");
+
+    /** Finds elements like the W3C locator strategies, below {@code this} if it is a node, else the document. */
+    private static final String FIND_SCRIPT = """
+            function (using, value, all) {
+              const root = this && this.nodeType ? this : document;
+              let found;
+              if (using === 'css selector') {
+                found = Array.from(root.querySelectorAll(value));
+              } else if (using === 'xpath') {
+                const result = document.evaluate(value, root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);
+                found = [];
+                for (let i = 0; i < result.snapshotLength; i++) found.push(result.snapshotItem(i));
+              } else if (using === 'tag name') {
+                found = Array.from(root.getElementsByTagName(value));
+              } else if (using === 'link text' || using === 'partial link text') {
+                found = Array.from(root.querySelectorAll('a')).filter(a => using === 'link text'
+                    ? a.innerText.trim() === value.trim() : a.innerText.includes(value));
+              } else {
+                throw new Error('Unsupported locator strategy: ' + using);
+              }
+              found = found.filter(node => node.nodeType === Node.ELEMENT_NODE);
+              return all ? found : (found[0] || null);
+            }""";
+
+    private final Process process;
+    private final Path userDataDir;
+    private final CdpConnection connection;
+    private final String targetId;
+    private final String sessionId;
+    private final String mainFrameId;
+    private final Capabilities capabilities;
+    private final Object navigationLock = new Object();
+    /** The loader of the main-frame document being loaded, or null while no load is pending. */
+    private String loadingLoaderId;
+    /** The last main-frame loader that fired {@code load}, so late commit events do not reopen a finished load. */
+    private String loadedLoaderId;
+    /** When a main-frame navigation was requested but has not started loading yet (it may be cancelled), else 0. */
+    private long requestedAtNanos;
+    private Duration implicitWait = Duration.ZERO;
+    private Duration pageLoadTimeout = Duration.ofSeconds(300);
+    private WebDriver proxy;
+
+    private CdpDriver(Process process, Path userDataDir, CdpConnection connection) {
+        this.process = process;
+        this.userDataDir = userDataDir;
+        this.connection = connection;
+
+        JSONArray targets = connection.send(null, "Target.getTargets", null).getJSONArray("targetInfos");
+        String page = null;
+        for (int i = 0; i < targets.length() && page == null; i++) {
+            if ("page".equals(targets.getJSONObject(i).optString("type"))) {
+                page = targets.getJSONObject(i).getString("targetId");
+            }
+        }
+        this.targetId = page != null ? page
+                : connection.send(null, "Target.createTarget", new JSONObject().put("url", "about:blank")).getString("targetId");
+        this.sessionId = connection.send(null, "Target.attachToTarget",
+                new JSONObject().put("targetId", targetId).put("flatten", true)).getString("sessionId");
+
+        connection.on("Page.frameRequestedNavigation", event -> navigationRequested(event.optString("frameId")));
+        connection.on("Page.frameNavigated", event -> {
+            JSONObject frame = event.getJSONObject("frame");
+            navigationCommitted(frame.optString("id"), frame.optString("loaderId"));
+        });
+        connection.on("Page.lifecycleEvent", event -> {
+            if ("load".equals(event.optString("name"))) {
+                loadFinished(event.optString("frameId"), event.optString("loaderId"));
+            }
+        });
+        // Navigations that end without a new document: same-document, cancelled, 204 or download
+        connection.on("Page.navigatedWithinDocument", event -> navigationEnded(event.optString("frameId")));
+        connection.on("Page.frameClearedScheduledNavigation", event -> navigationEnded(event.optString("frameId")));
+        connection.on("Page.frameStoppedLoading", event -> navigationEnded(event.optString("frameId")));
+        connection.on("Page.downloadWillBegin", event -> navigationEnded(event.optString("frameId")));
+        send("Page.enable", null);
+        send("Page.setLifecycleEventsEnabled", new JSONObject().put("enabled", true));
+        this.mainFrameId = send("Page.getFrameTree", null).getJSONObject("frameTree").getJSONObject("frame").getString("id");
+
+        String version = connection.send(null, "Browser.getVersion", null).optString("product");
+        this.capabilities = new ImmutableCapabilities(Map.of(
+                "browserName", "chrome-cdp",
+                "browserVersion", version.substring(version.indexOf('/') + 1),
+                "chrome", Map.of("userDataDir", userDataDir.toAbsolutePath().toString())));
+    }
+
+    /**
+     * Starts Chrome with the given options and returns a driver for its first tab.
+     *
+     * @param options the options built by {@link BrowserType#CHROME}; only arguments and binary are used
+     * @return the driver
+     * @throws SessionNotCreatedException if Chrome cannot be started or connected to
+     */
+    static WebDriver launch(ChromeOptions options) {
+        Map<?, ?> chromeOptions = (Map<?, ?>) options.asMap().getOrDefault(ChromeOptions.CAPABILITY, Map.of());
+        List<String> command = new ArrayList<>();
+        command.add(chromeBinary(chromeOptions.get("binary")));
+        if (chromeOptions.get("args") instanceof List<?> args) {
+            args.forEach(arg -> command.add(String.valueOf(arg)));
+        }
+        Path userDataDir;
+        try {
+            userDataDir = Files.createTempDirectory("cdp-chrome");
+        } catch (IOException e) {
+            throw new SessionNotCreatedException("Could not create a Chrome profile directory", e);
+        }
+        command.addAll(List.of("--remote-debugging-port=0", "--user-data-dir=" + userDataDir.toAbsolutePath(),
+                "--no-first-run", "--no-default-browser-check", "about:blank"));
+
+        Process process = null;
+        try {
+            process = new ProcessBuilder(command).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+            URI endpoint = awaitEndpoint(process);
+            CdpDriver driver = new CdpDriver(process, userDataDir, CdpConnection.open(endpoint, COMMAND_TIMEOUT));
+            driver.proxy = (WebDriver) Proxy.newProxyInstance(CdpDriver.class.getClassLoader(),
+                    new Class<?>[]{WebDriver.class, JavascriptExecutor.class, TakesScreenshot.class, HasCapabilities.class},
+                    driver::invokeDriver);
+            logger.info("🧪 Chrome {} driven over CDP (pid {}, no chromedriver)",
+                    driver.capabilities.getBrowserVersion(), process.pid());
+            return driver.proxy;
+        } catch (RuntimeException | IOException e) {
+            if (process != null) {
+                process.destroyForcibly();
+            }
+            deleteQuietly(userDataDir);
+            throw new SessionNotCreatedException("Could not start Chrome over CDP: " + e.getMessage(), e);
+        }
+    }
+
+    // --- WebDriver ---
+
+    private Object invokeDriver(Object self, Method method, Object[] args) throws Throwable {
+        return switch (method.getName()) {
+            case "get" -> {
+                navigate((String) args[0]);
+                yield null;
+            }
+            case "getCurrentUrl" -> evaluate("location.href");
+            case "getTitle" -> evaluate("document.title");
+            case "getPageSource" -> evaluate("document.documentElement.outerHTML");
+            case "findElement" -> findElement(null, (By) args[0]);
+            case "findElements" -> findElements(null, (By) args[0]);
+            case "getWindowHandle" -> targetId;
+            case "getWindowHandles" -> Set.of(targetId);
+            case "close", "quit" -> {
+                quit();
+                yield null;
+            }
+            case "manage" -> proxy(WebDriver.Options.class, this::invokeOptions);
+            case "navigate" -> proxy(WebDriver.Navigation.class, this::invokeNavigation);
+            case "switchTo" -> proxy(WebDriver.TargetLocator.class, this::invokeTargetLocator);
+            case "executeScript" -> executeScript((String) args[0], (Object[]) args[1]);
+            case "getScreenshotAs" -> screenshot((OutputType<?>) args[0], null);
+            case "getCapabilities" -> capabilities;
+            default -> fallback(self, method, args);
+        };
+    }
+
+    private void navigate(String url) {
+        JSONObject result = send("Page.navigate", new JSONObject().put("url", url));
+        if (result.has("errorText") && !result.getString("errorText").isEmpty()) {
+            navigationEnded(mainFrameId);
+            throw new WebDriverException("Navigation to " + url + " failed: " + result.getString("errorText"));
+        }
+        if (result.has("loaderId")) {
+            // A new document; its load is tracked by loader even if the events arrived before this response
+            navigationCommitted(mainFrameId, result.getString("loaderId"));
+        }
+        awaitNavigation();
+    }
+
+    private void quit() {
+        try {
+            connection.send(null, "Browser.close", null);
+        } catch (RuntimeException e) {
+            logger.debug("⚠️ Browser.close failed: {}", e.getMessage());
+        }
+        connection.close();
+        try {
+            if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+        }
+        deleteQuietly(userDataDir);
+    }
+
+    // --- Options, timeouts, window, navigation ---
+
+    private Object invokeOptions(Object self, Method method, Object[] args) throws Throwable {
+        return switch (method.getName()) {
+            case "getCookies" -> cookies();
+            case "getCookieNamed" -> cookies().stream().filter(c -> c.getName().equals(args[0])).findFirst().orElse(null);
+            case "addCookie" -> {
+                addCookie((Cookie) args[0]);
+                yield null;
+            }
+            case "deleteCookieNamed", "deleteCookie" -> {
+                String name = args[0] instanceof Cookie cookie ? cookie.getName() : (String) args[0];
+                send("Network.deleteCookies", new JSONObject().put("name", name).put("url", evaluate("location.href")));
+                yield null;
+            }
+            case "deleteAllCookies" -> {
+                send("Network.clearBrowserCookies", null);
+                yield null;
+            }
+            case "timeouts" -> proxy(WebDriver.Timeouts.class, this::invokeTimeouts);
+            case "window" -> proxy(WebDriver.Window.class, this::invokeWindow);
+            default -> fallback(self, method, args);
+        };
+    }
+
+    private Object invokeTimeouts(Object self, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "implicitlyWait" -> implicitWait = duration(args);
+            case "pageLoadTimeout" -> pageLoadTimeout = duration(args);
+            case "scriptTimeout", "setScriptTimeout" -> {
+                // Scripts are synchronous here; the command timeout applies
+            }
+            case "getImplicitWaitTimeout" -> {
+                return implicitWait;
+            }
+            case "getPageLoadTimeout" -> {
+                return pageLoadTimeout;
+            }
+            default -> {
+                return fallback(self, method, args);
+            }
+        }
+        return self;
+    }
+
+    private Object invokeWindow(Object self, Method method, Object[] args) throws Throwable {
+        return switch (method.getName()) {
+            case "maximize", "fullscreen", "minimize" -> {
+                String state = method.getName().equals("fullscreen") ? "fullscreen"
+                        : method.getName().equals("minimize") ? "minimized" : "maximized";
+                setWindowBounds(new JSONObject().put("windowState", state));
+                yield null;
+            }
+            case "setSize" -> {
+                Dimension size = (Dimension) args[0];
+                setWindowBounds(new JSONObject().put("windowState", "normal").put("width", size.getWidth())
+                        .put("height", size.getHeight()));
+                yield null;
+            }
+            case "getSize" -> {
+                Map<?, ?> size = (Map<?, ?>) evaluate("({w: window.outerWidth, h: window.outerHeight})");
+                yield new Dimension(((Number) size.get("w")).intValue(), ((Number) size.get("h")).intValue());
+            }
+            default -> fallback(self, method, args);
+        };
+    }
+
+    private Object invokeNavigation(Object self, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "to" -> navigate(args[0] instanceof URL url ? url.toString() : (String) args[0]);
+            case "back", "forward" -> {
+                JSONObject history = send("Page.getNavigationHistory", null);
+                int index = history.getInt("currentIndex") + (method.getName().equals("back") ? -1 : 1);
+                JSONArray entries = history.getJSONArray("entries");
+                if (index >= 0 && index < entries.length()) {
+                    send("Page.navigateToHistoryEntry", new JSONObject().put("entryId", entries.getJSONObject(index).getInt("id")));
+                    awaitNavigation();
+                }
+            }
+            case "refresh" -> {
+                send("Page.reload", null);
+                awaitNavigation();
+            }
+            default -> {
+                return fallback(self, method, args);
+            }
+        }
+        return null;
+    }
+
+    private Object invokeTargetLocator(Object self, Method method, Object[] args) throws Throwable {
+        return switch (method.getName()) {
+            case "defaultContent" -> proxy;
+            case "window" -> {
+                if (!targetId.equals(args[0])) {
+                    throw new UnsupportedOperationException("Only the first tab is supported in CHROME_CDP mode");
+                }
+                yield proxy;
+            }
+            default -> fallback(self, method, args);
+        };
+    }
+
+    // --- Elements ---
+
+    /**
+     * A remote reference to a DOM element, valid until its document goes away.
+     */
+    private final class Element implements InvocationHandler {
+        private final String objectId;
+
+        private Element(String objectId) {
+            this.objectId = objectId;
+        }
+
+        @Override
+        public Object invoke(Object self, Method method, Object[] args) throws Throwable {
+            return switch (method.getName()) {
+                case "click" -> {
+                    click();
+                    yield null;
+                }
+                case "sendKeys" -> {
+                    type((CharSequence[]) args[0]);
+                    yield null;
+                }
+                case "clear" -> call("function () { this.focus(); this.value = '';"
+                        + " this.dispatchEvent(new Event('input', {bubbles: true}));"
+                        + " this.dispatchEvent(new Event('change', {bubbles: true})); }");
+                case "submit" -> call("function () { const form = this.form || this;"
+                        + " form.requestSubmit ? form.requestSubmit() : form.submit(); }");
+                case "isDisplayed" -> call("function () { const r = this.getBoundingClientRect();"
+                        + " return r.width > 0 && r.height > 0"
+                        + " && this.checkVisibility({opacityProperty: true, visibilityProperty: true}); }");
+                case "isEnabled" -> call("function () { return !this.disabled; }");
+                case "isSelected" -> call("function () { return !!(this.checked || this.selected); }");
+                case "getText" -> call("function () { return this.innerText; }");
+                case "getTagName" -> call("function () { return this.tagName.toLowerCase(); }");
+                case "getAttribute" -> call("function (name) { const p = this[name];"
+                        + " if (p !== undefined && p !== null && typeof p !== 'object' && typeof p !== 'function')"
+                        + " return p === false ? null : String(p); return this.getAttribute(name); }", args[0]);
+                case "getDomAttribute" -> call("function (name) { return this.getAttribute(name); }", args[0]);
+                case "getDomProperty" -> call("function (name) { const p = this[name];"
+                        + " return p === undefined || p === null ? null : String(p); }", args[0]);
+                case "getCssValue" -> call("function (name) { return getComputedStyle(this).getPropertyValue(name); }", args[0]);
+                case "getRect" -> rect();
+                case "getLocation" -> rect().getPoint();
+                case "getSize" -> rect().getDimension();
+                case "findElement" -> CdpDriver.this.findElement(this, (By) args[0]);
+                case "findElements" -> CdpDriver.this.findElements(this, (By) args[0]);
+                case "getScreenshotAs" -> screenshot((OutputType<?>) args[0], rect());
+                case "getWrappedDriver" -> proxy;
+                default -> fallback(self, method, args);
+            };
+        }
+
+        private Object call(String function, Object... args) {
+            return callFunction(objectId, function, args);
+        }
+
+        private Rectangle rect() {
+            Map<?, ?> r = (Map<?, ?>) call("function () { const r = this.getBoundingClientRect();"
+                    + " return {x: r.left + scrollX, y: r.top + scrollY, w: r.width, h: r.height}; }");
+            return new Rectangle(((Number) r.get("x")).intValue(), ((Number) r.get("y")).intValue(),
+                    ((Number) r.get("h")).intValue(), ((Number) r.get("w")).intValue());
+        }
+
+        private void click() {
+            Map<?, ?> center = (Map<?, ?>) call("function () {"
+                    + " this.scrollIntoView({block: 'center', inline: 'center'}); const r = this.getBoundingClientRect();"
+                    + " return {x: r.left + r.width / 2, y: r.top + r.height / 2}; }");
+            for (String type : List.of("mousePressed", "mouseReleased")) {
+                send("Input.dispatchMouseEvent", new JSONObject().put("type", type).put("x", center.get("x"))
+                        .put("y", center.get("y")).put("button", "left").put("clickCount", 1));
+            }
+        }
+
+        private void type(CharSequence[] keys) {
+            call("function () { this.focus(); }");
+            StringBuilder text = new StringBuilder();
+            for (CharSequence sequence : keys) {
+                for (char c : sequence.toString().toCharArray()) {
+                    if (c == '\n' || c == Keys.ENTER.charAt(0) || c == Keys.RETURN.charAt(0)) {
+                        insertText(text);
+                        for (String type : List.of("keyDown", "keyUp")) {
+                            send("Input.dispatchKeyEvent", new JSONObject().put("type", type).put("key", "Enter")
+                                    .put("code", "Enter").put("windowsVirtualKeyCode", 13)
+                                    .put("text", type.equals("keyDown") ? "\r" : ""));
+                        }
+                    } else if (Keys.getKeyFromUnicode(c) != null) {
+                        throw new UnsupportedOperationException("Key " + Keys.getKeyFromUnicode(c)
+                                + " is not supported in CHROME_CDP mode");
+                    } else {
+                        text.append(c);
+                    }
+                }
+            }
+            insertText(text);
+        }
+
+        private void insertText(StringBuilder text) {
+            if (!text.isEmpty()) {
+                send("Input.insertText", new JSONObject().put("text", text.toString()));
+                text.setLength(0);
+            }
+        }
+    }
+
+    private WebElement findElement(Element root, By by) {
+        long deadline = System.nanoTime() + implicitWait.toNanos();
+        while (true) {
+            JSONObject result = find(root, by, false);
+            if (result.has("objectId")) {
+                return element(result.getString("objectId"));
+            }
+            if (System.nanoTime() >= deadline) {
+                throw new NoSuchElementException("Unable to locate element: " + by);
+            }
+            pause();
+        }
+    }
+
+    private List<WebElement> findElements(Element root, By by) {
+        long deadline = System.nanoTime() + implicitWait.toNanos();
+        while (true) {
+            JSONObject array = find(root, by, true);
+            List<WebElement> elements = new ArrayList<>();
+            JSONArray properties = send("Runtime.getProperties", new JSONObject()
+                    .put("objectId", array.getString("objectId")).put("ownProperties", true)).getJSONArray("result");
+            for (int i = 0; i < properties.length(); i++) {
+                JSONObject property = properties.getJSONObject(i);
+                if (property.getString("name").matches("\\d+") && property.getJSONObject("value").has("objectId")) {
+                    elements.add(element(property.getJSONObject("value").getString("objectId")));
+                }
+            }
+            if (!elements.isEmpty() || System.nanoTime() >= deadline) {
+                return elements;
+            }
+            pause();
+        }
+    }
+
+    /**
+     * Runs {@link #FIND_SCRIPT} below the root element, or the document, and returns the remote result object.
+     */
+    private JSONObject find(Element root, By by, boolean all) {
+        if (!(by instanceof By.Remotable remotable)) {
+            throw new UnsupportedOperationException("Locator " + by + " is not supported in CHROME_CDP mode");
+        }
+        By.Remotable.Parameters locator = remotable.getRemoteParameters();
+        String using = locator.using();
+        String value = String.valueOf(locator.value());
+        JSONObject result;
+        if (root == null) {
+            awaitNavigation();
+            result = send("Runtime.evaluate", new JSONObject()
+                    .put("expression", "(" + FIND_SCRIPT + ").call(document, " + JSONObject.quote(using) + ", "
+                            + JSONObject.quote(value) + ", " + all + ")"));
+        } else {
+            result = send("Runtime.callFunctionOn", new JSONObject().put("objectId", root.objectId)
+                    .put("functionDeclaration", FIND_SCRIPT)
+                    .put("arguments", new JSONArray().put(arg(using)).put(arg(value)).put(arg(all))));
+        }
+        throwIfException(result);
+        return result.getJSONObject("result");
+    }
+
+    private WebElement element(String objectId) {
+        Element element = new Element(objectId);
+        return (WebElement) Proxy.newProxyInstance(CdpDriver.class.getClassLoader(),
+                new Class<?>[]{WebElement.class, TakesScreenshot.class, WrapsDriver.class}, element);
+    }
+
+    // --- Scripts ---
+
+    /**
+     * Runs a WebDriver-style script body with its arguments; element arguments are passed as remote references.
+     */
+    private Object executeScript(String script, Object[] args) {
+        awaitNavigation();
+        String document = send("Runtime.evaluate", new JSONObject().put("expression", "document"))
+                .getJSONObject("result").getString("objectId");
+        return callFunction(document, "function () { return (function () {\n" + script + "\n}).apply(window, arguments); }",
+                args == null ? new Object[0] : args);
+    }
+
+    private Object callFunction(String objectId, String function, Object... args) {
+        JSONArray arguments = new JSONArray();
+        for (Object arg : args) {
+            String elementId = elementObjectId(arg);
+            arguments.put(elementId != null ? new JSONObject().put("objectId", elementId) : arg(arg));
+        }
+        JSONObject result = send("Runtime.callFunctionOn", new JSONObject().put("objectId", objectId)
+                .put("functionDeclaration", function).put("arguments", arguments).put("returnByValue", true));
+        throwIfException(result);
+        return fromJson(result.getJSONObject("result").opt("value"));
+    }
+
+    private Object evaluate(String expression) {
+        awaitNavigation();
+        JSONObject result = send("Runtime.evaluate", new JSONObject().put("expression", expression).put("returnByValue", true));
+        throwIfException(result);
+        return fromJson(result.getJSONObject("result").opt("value"));
+    }
+
+    private static String elementObjectId(Object value) {
+        if (value != null && Proxy.isProxyClass(value.getClass())
+                && Proxy.getInvocationHandler(value) instanceof Element element) {
+            return element.objectId;
+        }
+        return null;
+    }
+
+    private static JSONObject arg(Object value) {
+        return new JSONObject().put("value", value == null ? JSONObject.NULL : JSONObject.wrap(value));
+    }
+
+    private static Object fromJson(Object value) {
+        if (value == null || value == JSONObject.NULL) {
+            return null;
+        }
+        if (value instanceof Number number) {
+            double d = number.doubleValue();
+            return d == Math.rint(d) && !Double.isInfinite(d) ? (Object) number.longValue() : (Object) d;
+        }
+        if (value instanceof JSONArray array) {
+            List<Object> list = new ArrayList<>();
+            array.forEach(item -> list.add(fromJson(item)));
+            return list;
+        }
+        if (value instanceof JSONObject object) {
+            Map<String, Object> map = new HashMap<>();
+            object.keySet().forEach(key -> map.put(key, fromJson(object.get(key))));
+            return map;
+        }
+        return value;
+    }
+
+    private static void throwIfException(JSONObject result) {
+        if (result.has("exceptionDetails")) {
+            JSONObject details = result.getJSONObject("exceptionDetails");
+            JSONObject exception = details.has("exception") ? details.getJSONObject("exception") : new JSONObject();
+            throw new WebDriverException("JavaScript error: " + exception.optString("description", details.optString("text")));
+        }
+    }
+
+    // --- Screenshots and cookies ---
+
+    private <X> X screenshot(OutputType<X> type, Rectangle clip) {
+        awaitNavigation();
+        JSONObject params = new JSONObject().put("format", "png");
+        if (clip != null) {
+            params.put("clip", new JSONObject().put("x", clip.getX()).put("y", clip.getY())
+                    .put("width", clip.getWidth()).put("height", clip.getHeight()).put("scale", 1));
+        }
+        return type.convertFromBase64Png(send("Page.captureScreenshot", params).getString("data"));
+    }
+
+    private Set<Cookie> cookies() {
+        JSONArray cookies = send("Network.getCookies", new JSONObject()
+                .put("urls", new JSONArray().put(evaluate("location.href")))).getJSONArray("cookies");
+        Set<Cookie> result = new LinkedHashSet<>();
+        for (int i = 0; i < cookies.length(); i++) {
+            JSONObject cookie = cookies.getJSONObject(i);
+            Cookie.Builder builder = new Cookie.Builder(cookie.getString("name"), cookie.getString("value"))
+                    .domain(cookie.optString("domain"))
+                    .path(cookie.optString("path", "/"))
+                    .isSecure(cookie.optBoolean("secure"))
+                    .isHttpOnly(cookie.optBoolean("httpOnly"));
+            if (!cookie.optBoolean("session") && cookie.optDouble("expires", -1) > 0) {
+                builder.expiresOn(new Date((long) (cookie.getDouble("expires") * 1000)));
+            }
+            if (cookie.has("sameSite")) {
+                builder.sameSite(cookie.getString("sameSite"));
+            }
+            result.add(builder.build());
+        }
+        return result;
+    }
+
+    private void addCookie(Cookie cookie) {
+        JSONObject params = new JSONObject().put("name", cookie.getName()).put("value", cookie.getValue())
+                .put("path", cookie.getPath() != null ? cookie.getPath() : "/")
+                .put("secure", cookie.isSecure()).put("httpOnly", cookie.isHttpOnly());
+        if (cookie.getDomain() != null) {
+            params.put("domain", cookie.getDomain());
+        } else {
+            params.put("url", evaluate("location.href"));
+        }
+        if (cookie.getExpiry() != null) {
+            params.put("expires", cookie.getExpiry().getTime() / 1000.0);
+        }
+        if (cookie.getSameSite() != null) {
+            params.put("sameSite", cookie.getSameSite());
+        }
+        send("Network.setCookie", params);
+    }
+
+    private void setWindowBounds(JSONObject bounds) {
+        try {
+            int windowId = connection.send(null, "Browser.getWindowForTarget",
+                    new JSONObject().put("targetId", targetId)).getInt("windowId");
+            connection.send(null, "Browser.setWindowBounds", new JSONObject().put("windowId", windowId).put("bounds", bounds));
+        } catch (WebDriverException e) {
+            // Headless windows have no window states
+            logger.debug("⚠️ Could not set window bounds: {}", e.getMessage());
+        }
+    }
+
+    // --- Navigation tracking ---
+
+    private void navigationRequested(String frameId) {
+        if (frameId.equals(mainFrameId)) {
+            synchronized (navigationLock) {
+                requestedAtNanos = System.nanoTime();
+            }
+        }
+    }
+
+    private void navigationCommitted(String frameId, String loaderId) {
+        if (frameId.equals(mainFrameId) && !loaderId.isEmpty()) {
+            synchronized (navigationLock) {
+                if (!loaderId.equals(loadedLoaderId)) {
+                    loadingLoaderId = loaderId;
+                }
+                requestedAtNanos = 0;
+            }
+        }
+    }
+
+    private void loadFinished(String frameId, String loaderId) {
+        if (frameId.equals(mainFrameId)) {
+            synchronized (navigationLock) {
+                loadedLoaderId = loaderId;
+                if (loaderId.equals(loadingLoaderId)) {
+                    loadingLoaderId = null;
+                }
+                navigationLock.notifyAll();
+            }
+        }
+    }
+
+    private void navigationEnded(String frameId) {
+        if (frameId.equals(mainFrameId)) {
+            synchronized (navigationLock) {
+                if (loadingLoaderId != null) {
+                    loadedLoaderId = loadingLoaderId;
+                }
+                loadingLoaderId = null;
+                requestedAtNanos = 0;
+                navigationLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Waits for a pending main-frame navigation (e.g., started by a click) to finish loading.
+     * <p>
+     * A committed document is waited for until its loader fires {@code load} (or loading stops). A navigation that
+     * was only requested is given {@link #REQUEST_GRACE} to commit, since Chrome may cancel it without further
+     * events. On timeout the pending state is dropped, so later commands do not wait for the same navigation again.
+     */
+    private void awaitNavigation() {
+        long deadline = System.nanoTime() + pageLoadTimeout.toNanos();
+        synchronized (navigationLock) {
+            while (loadingLoaderId != null || requestedAtNanos != 0) {
+                long now = System.nanoTime();
+                if (loadingLoaderId == null && now - requestedAtNanos >= REQUEST_GRACE.toNanos()) {
+                    requestedAtNanos = 0;
+                    break;
+                }
+                if (now >= deadline) {
+                    loadingLoaderId = null;
+                    requestedAtNanos = 0;
+                    throw new TimeoutException("Page did not finish loading within "
+                            + pageLoadTimeout.toSeconds() + " s");
+                }
+                long waitNanos = deadline - now;
+                if (loadingLoaderId == null) {
+                    waitNanos = Math.min(waitNanos, requestedAtNanos + REQUEST_GRACE.toNanos() - now);
+                }
+                try {
+                    navigationLock.wait(Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos)));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new WebDriverException("Interrupted while waiting for the page to load", e);
+                }
+            }
+        }
+    }
+
+    // --- Plumbing ---
+
+    private JSONObject send(String method, JSONObject params) {
+        try {
+            return connection.send(sessionId, method, params);
+        } catch (WebDriverException e) {
+            String message = String.valueOf(e.getMessage());
+            if (message.contains("Could not find object with given id") || message.contains("Cannot find context")) {
+                throw new StaleElementReferenceException("Element belongs to a document that is gone", e);
+            }
+            throw e;
+        }
+    }
+
+    private <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(CdpDriver.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private Object fallback(Object self, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                return self == args[0];
+            case "hashCode":
+                return System.identityHashCode(self);
+            case "toString":
+                return "CdpDriver (" + method.getDeclaringClass().getSimpleName() + ", pid " + process.pid() + ")";
+            default:
+                if (method.isDefault()) {
+                    return InvocationHandler.invokeDefault(self, method, args);
+                }
+                throw new UnsupportedOperationException(method.getDeclaringClass().getSimpleName() + "."
+                        + method.getName() + " is not supported in CHROME_CDP mode");
+        }
+    }
+
+    private static Duration duration(Object[] args) {
+        return args.length == 1 ? (Duration) args[0] : Duration.ofNanos(((TimeUnit) args[1]).toNanos((Long) args[0]));
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebDriverException("Interrupted while waiting for an element", e);
+        }
+    }
+
+    /**
+     * Reads Chrome's stderr until it prints its DevTools endpoint, then keeps draining it in the background.
+     */
+    private static URI awaitEndpoint(Process process) throws IOException {
+        BufferedReader stderr = new BufferedReader(new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8));
+        CompletableFuture<URI> endpoint = new CompletableFuture<>();
+        Thread reader = new Thread(() -> {
+            try {
+                String line;
+                while ((line = stderr.readLine()) != null) {
+                    Matcher matcher = DEVTOOLS_ENDPOINT.matcher(line);
+                    if (matcher.find()) {
+                        endpoint.complete(URI.create(matcher.group(1)));
+                    }
+                }
+            } catch (IOException ignored) {
+                // Chrome exited
+            }
+            endpoint.completeExceptionally(new IOException("Chrome exited before reporting its DevTools endpoint"));
+        }, "cdp-chrome-stderr");
+        reader.setDaemon(true);
+        reader.start();
+        try {
+            return endpoint.get(COMMAND_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            throw new IOException("Chrome did not report a DevTools endpoint: " + e.getMessage(), e);
+        }
+    }
+
+    private static String chromeBinary(Object configured) {
+        String binary = configured != null ? configured.toString() : EnvironmentManager.get("cdp.chrome.binary", "");
+        if (!binary.isEmpty()) {
+            return binary;
+        }
+        for (String candidate : CHROME_BINARIES) {
+            if (candidate.startsWith("/")) {
+                if (Files.isExecutable(Paths.get(candidate))) {
+                    return candidate;
+                }
+                continue;
+            }
+            for (String dir : System.getenv().getOrDefault("PATH", "").split(File.pathSeparator)) {
+                if (Files.isExecutable(Paths.get(dir, candidate))) {
+                    return Paths.get(dir, candidate).toString();
+                }
+            }
+        }
+        throw new SessionNotCreatedException("Chrome not found; set cdp.chrome.binary");
+    }
+
+    private static void deleteQuietly(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException | RuntimeException e) {
+            logger.debug("⚠️ Could not delete {}: {}", dir, e.getMessage());
+        }
+    }
+}
@@ -5,16 +5,27 @@ import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.remote.RemoteWebDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import utils.BrowserCache;
+import utils.BrowserCapacity;
+import utils.BrowserPermits;
 import utils.EnvironmentManager;
+import utils.HostCircuitBreaker;
+import utils.ProcessMonitor;
+import utils.RunProgress;
 
 import java.net.MalformedURLException;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * DriverFactory is a utility class that provides thread-safe management of WebDriver instances.
  * It supports both local and remote driver execution, configurable via environment variables.
+ * Drivers are provisioned lazily: a browser is only launched when a scenario first uses it, and the number of
+ * handles, launched browsers and browsers actually used is logged at JVM exit.
  * <p>
  * Example environment variables:
  * <ul>
@@ -23,6 +34,9 @@ import java.util.Map;
  *     <li>{@code remote} – true to run tests on Selenium Grid</li>
  *     <li>{@code grid.url} – URL of the Selenium Grid</li>
  *     <li>{@code implicit.wait} – implicit wait time in seconds</li>
+ *     <li>{@code browser.contexts.enabled} – serve Chrome/Edge scenarios from isolated contexts of pooled browsers</li>
+ *     <li>{@code browser.cache.enabled} – start Chrome/Edge with a copy of the shared disk cache (see {@link BrowserCache})</li>
+ *     <li>{@code monitor.enabled} – sample the processes of local browsers (see {@link ProcessMonitor})</li>
  * </ul>
  */
 public class DriverFactory {
@@ -30,19 +44,89 @@ public class DriverFactory {
     private static final Logger logger = LoggerFactory.getLogger(DriverFactory.class);
 
     /**
-     * ThreadLocal driver that automatically initializes using createDriver on first access.
+     * ThreadLocal driver handle. Handles are lazy: the browser is only launched on the first WebDriver call.
      */
-    private static final ThreadLocal<WebDriver> driverThreadLocal = ThreadLocal.withInitial(() -> {
-        WebDriver driver = createDriver();
-        logger.info("✅ WebDriver initialized automatically for thread: {}", Thread.currentThread().getName());
-        return driver;
-    });
+    private static final ThreadLocal<WebDriver> driverThreadLocal = new ThreadLocal<>();
+
+    private static final LongAdder handlesCreated = new LongAdder();
+    private static final LongAdder browsersLaunched = new LongAdder();
+    private static final LongAdder browsersUsed = new LongAdder();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> logger.info(
+                "🚦 Driver summary | handles: {}, browsers launched: {}, browsers used: {}, launches avoided: {}",
+                handlesCreated.sum(), browsersLaunched.sum(), browsersUsed.sum(),
+                handlesCreated.sum() - browsersLaunched.sum()), "driver-factory-summary"));
+    }
 
     /**
      * Returns the WebDriver for the current thread.
+     * <p>
+     * If the thread has no driver yet, a lazy handle is returned; it launches the browser on its first
+     * WebDriver call, so merely obtaining the driver (e.g., in a page object constructor) costs nothing.
      */
     public static WebDriver getDriver() {
-        return driverThreadLocal.get();
+        WebDriver driver = driverThreadLocal.get();
+        if (driver == null) {
+            driver = newHandle(null, null);
+            driverThreadLocal.set(driver);
+        }
+        return driver;
+    }
+
+    /**
+     * Prepares a lazy driver handle for the current thread without launching a browser.
+     *
+     * @param onStart invoked with the real driver right after it is launched (e.g., to enable logging); may be null
+     */
+    public static void prepareDriver(Consumer<WebDriver> onStart) {
+        driverThreadLocal.set(newHandle(onStart, null));
+    }
+
+    /**
+     * Marks the current thread as browserless: any WebDriver call fails instead of launching a browser.
+     *
+     * @param reason explanation included in the failure (e.g., the scenario is tagged {@code @nobrowser})
+     */
+    public static void disableDriver(String reason) {
+        driverThreadLocal.set(newHandle(null, reason));
+    }
+
+    /**
+     * Returns whether the current thread's driver has launched a real browser session.
+     *
+     * @return true if a browser is running for this thread
+     */
+    public static boolean isDriverStarted() {
+        WebDriver driver = driverThreadLocal.get();
+        LazyDriver handle = LazyDriver.of(driver);
+        return handle == null ? driver != null : handle.isStarted();
+    }
+
+    /**
+     * Returns a view of the current thread's browser session that other threads (e.g., a watchdog) may query.
+     * The supplier yields the launched driver, or null while no browser has been launched.
+     *
+     * @return supplier of the current thread's launched driver
+     */
+    public static Supplier<WebDriver> currentSession() {
+        WebDriver driver = getDriver();
+        LazyDriver handle = LazyDriver.of(driver);
+        return handle == null ? () -> driver : handle::delegate;
+    }
+
+    private static WebDriver newHandle(Consumer<WebDriver> onStart, String refusal) {
+        final String browserName = EnvironmentManager.get("browser", "chrome");
+        final boolean isRemote = Boolean.parseBoolean(EnvironmentManager.get("remote", "false"));
+        BrowserType browser = BrowserType.fromString(browserName);
+        boolean devTools = !isRemote && (browser == BrowserType.CHROME || browser == BrowserType.EDGE);
+
+        handlesCreated.increment();
+        return LazyDriver.create(() -> {
+            WebDriver driver = createDriver();
+            logger.info("✅ WebDriver launched on first use for thread: {}", Thread.currentThread().getName());
+            return driver;
+        }, onStart, refusal, devTools, browser != BrowserType.CHROME_CDP);
     }
 
     /**
@@ -58,52 +142,118 @@ public class DriverFactory {
         Map<String, Object> additionalCapabilities = new HashMap<>();
         // additionalCapabilities.put("acceptInsecureCerts", true);
 
+        RunProgress.launchQueued();
+        try {
+            acquireLaunchSlots(isRemote);
+        } finally {
+            RunProgress.launchDequeued();
+        }
+        long launchStart = System.nanoTime();
         try {
             BrowserType browser = BrowserType.fromString(browserName);
-            WebDriver driver = browser.createDriver(isHeadless, isRemote, gridUrl, additionalCapabilities);
+            WebDriver driver = BrowserContextPool.isEnabled(browser, isRemote)
+                    ? BrowserContextPool.acquire(browser, isHeadless, additionalCapabilities)
+                    : browser.createDriver(isHeadless, isRemote, gridUrl, additionalCapabilities);
+            if (!isRemote && !BrowserContextPool.isEnabled(browser, false)) {
+                ProcessMonitor.track(driver);
+            }
+            if (HostCircuitBreaker.isEnabled()) {
+                driver = new HostGuardDecorator().decorate(driver);
+            }
             driver.manage().window().maximize();
             driver.manage().timeouts().implicitlyWait(Duration.ofSeconds((implicitWaitSeconds)));
+            browsersLaunched.increment();
+            RunProgress.sessionStarted(browser.name(), System.nanoTime() - launchStart);
             logger.info("✅ WebDriver started successfully.");
             return driver;
         } catch (MalformedURLException e) {
+            releaseLaunchSlots();
             logger.error("⚠️ Invalid grid URL: {}", e.getMessage(), e);
             throw new RuntimeException("Invalid Selenium Grid URL", e);
         } catch (WebDriverException e) {
+            releaseLaunchSlots();
             logger.error("⚠️ WebDriver error occurred: {}", e.getMessage(), e);
             throw new RuntimeException("WebDriver error", e);
         } catch (Exception e) {
+            releaseLaunchSlots();
             logger.error("❌ Unexpected error while starting WebDriver: {}", e.getMessage(), e);
             throw new RuntimeException("Failed to initialize WebDriver", e);
         }
     }
 
+    /**
+     * Reserves, for local browsers, a build-wide permit shared by all Gradle forks and then local memory headroom.
+     * The permit comes first so a thread queued on other forks does not hold a memory slot this fork could use.
+     * Browsers on Selenium Grid are queued by the Grid itself and do not take a cross-fork permit.
+     */
+    private static void acquireLaunchSlots(boolean isRemote) {
+        if (!isRemote) {
+            BrowserPermits.acquire();
+        }
+        try {
+            BrowserCapacity.acquire();
+        } catch (RuntimeException e) {
+            BrowserPermits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Releases everything reserved by {@link #acquireLaunchSlots(boolean)} for the current thread.
+     */
+    private static void releaseLaunchSlots() {
+        BrowserCapacity.release();
+        BrowserPermits.release();
+    }
+
     /**
      * Explicitly start a new driver and override the current ThreadLocal.
      * Useful if you want to restart in the same thread.
      */
     public static void startDriver() {
-        WebDriver driver = createDriver();
+        WebDriver driver = newHandle(null, null);
+        LazyDriver.of(driver).start();
         driverThreadLocal.set(driver);
         logger.info("✅ WebDriver manually started for thread: {}", Thread.currentThread().getName());
     }
 
     /**
      * Quits the current WebDriver instance and removes it from ThreadLocal.
+     * A lazy handle that never launched a browser is simply discarded.
      */
     public static void quitDriver() {
-        WebDriver driver = driverThreadLocal.get();
+        WebDriver handle = driverThreadLocal.get();
+        LazyDriver lazy = LazyDriver.of(handle);
+        if (lazy != null && !lazy.isStarted()) {
+            driverThreadLocal.remove();
+            return;
+        }
+        WebDriver driver = lazy != null ? lazy.delegate() : handle;
         if (driver != null) {
+            if (lazy != null && lazy.calls() > 0) {
+                browsersUsed.increment();
+            }
             try {
-                if (driver instanceof RemoteWebDriver && ((RemoteWebDriver) driver).getSessionId() == null) {
+                if (BrowserContextPool.release()) {
+                    logger.info("🛑 Browser context released for thread: {}", Thread.currentThread().getName());
+                } else if (driver instanceof RemoteWebDriver && ((RemoteWebDriver) driver).getSessionId() == null) {
                     logger.warn("Session already closed.");
                 } else {
                     driver.quit();
                     logger.info("🛑 WebDriver quit successfully for thread: {}", Thread.currentThread().getName());
                 }
+                RemoteTransport.Stats stats = RemoteTransport.takeThreadStats();
+                if (stats.commands() > 0) {
+                    logger.info("🌐 Remote commands: {}, network time: {} ms", stats.commands(), stats.millis());
+                }
             } catch (Exception e) {
                 logger.error("⚠️ Error quitting WebDriver: {}", e.getMessage(), e);
             } finally {
                 driverThreadLocal.remove();
+                ProcessMonitor.untrack();
+                BrowserCache.release();
+                RunProgress.sessionEnded();
+                releaseLaunchSlots();
             }
         }
     }
@@ -0,0 +1,73 @@
+package driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.decorators.WebDriverDecorator;
+import utils.HostCircuitBreaker;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+
+/**
+ * Driver decorator that routes navigations ({@code driver.get(url)} and {@code driver.navigate().to(url)})
+ * through {@link HostCircuitBreaker}.
+ * <p>
+ * Unlike a {@code WebDriverListener}, whose exceptions are swallowed by {@code EventFiringDecorator}, overriding
+ * {@link #call(Decorated, Method, Object[])} allows a navigation to an unavailable host to be rejected before
+ * the command is ever sent to the browser.
+ */
+public class HostGuardDecorator extends WebDriverDecorator<WebDriver> {
+
+    @Override
+    public Object call(Decorated<?> target, Method method, Object[] args) throws Throwable {
+        String url = navigationUrl(target, method, args);
+        if (url == null) {
+            return super.call(target, method, args);
+        }
+
+        HostCircuitBreaker.beforeNavigation(url);
+        long startedAt = System.nanoTime();
+        try {
+            Object result = super.call(target, method, args);
+            HostCircuitBreaker.recordSuccess(url, startedAt);
+            return result;
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getTargetException();
+            // Not counted again if the CDP listener already reported this load as failed
+            HostCircuitBreaker.recordFailure(url, cause.getClass().getSimpleName() + ": " + firstLine(cause.getMessage()),
+                    startedAt);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the target URL if the call is a navigation, otherwise null.
+     */
+    private static String navigationUrl(Decorated<?> target, Method method, Object[] args) {
+        if (args == null || args.length != 1) {
+            return null;
+        }
+        Object original = target.getOriginal();
+        boolean isNavigation = (original instanceof WebDriver && method.getName().equals("get"))
+                || (original instanceof WebDriver.Navigation && method.getName().equals("to"));
+        if (!isNavigation) {
+            return null;
+        }
+        if (args[0] instanceof String url) {
+            return url;
+        }
+        if (args[0] instanceof URL url) {
+            return url.toString();
+        }
+        return null;
+    }
+
+    private static String firstLine(String message) {
+        if (message == null) {
+            return "";
+        }
+        int newline = message.indexOf('\n');
+        return newline < 0 ? message : message.substring(0, newline);
+    }
+}
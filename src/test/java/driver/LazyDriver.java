@@ -0,0 +1,162 @@
+package driver;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.interactions.Interactive;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Lightweight WebDriver handle that launches the real browser session only on its first WebDriver call.
+ * <p>
+ * The handle is a dynamic proxy implementing the interfaces the framework relies on; DevTools interfaces are only
+ * exposed when the configured browser provides them, so {@code instanceof HasDevTools} checks keep working; the
+ * same goes for {@link Interactive} (Actions), which the experimental {@link BrowserType#CHROME_CDP} lacks.
+ * Object methods and {@code quit()} on a handle that was never used do not launch anything.
+ */
+final class LazyDriver implements InvocationHandler {
+
+    private final Supplier<WebDriver> launcher;
+    private final Consumer<WebDriver> onStart;
+    private final String refusal;
+    private WebDriver delegate;
+    private long calls;
+
+    private LazyDriver(Supplier<WebDriver> launcher, Consumer<WebDriver> onStart, String refusal) {
+        this.launcher = launcher;
+        this.onStart = onStart;
+        this.refusal = refusal;
+    }
+
+    /**
+     * Creates a handle that launches a browser via {@code launcher} on first use.
+     *
+     * @param launcher    creates the real driver
+     * @param onStart     invoked with the real driver right after launch (e.g., to enable logging); may be null
+     * @param refusal     if not null, the handle never launches and fails with this message instead
+     * @param devTools    whether the real driver will support DevTools/CDP
+     * @param interactive whether the real driver will support {@link Interactive} (Actions)
+     * @return the proxy handle
+     */
+    static WebDriver create(Supplier<WebDriver> launcher, Consumer<WebDriver> onStart, String refusal, boolean devTools,
+                            boolean interactive) {
+        List<Class<?>> interfaces = new ArrayList<>(List.of(WebDriver.class, JavascriptExecutor.class,
+                TakesScreenshot.class, HasCapabilities.class, WrapsDriver.class));
+        if (interactive) {
+            interfaces.add(Interactive.class);
+        }
+        if (devTools) {
+            interfaces.add(HasDevTools.class);
+            interfaces.add(HasCdp.class);
+        }
+        return (WebDriver) Proxy.newProxyInstance(LazyDriver.class.getClassLoader(),
+                interfaces.toArray(new Class<?>[0]), new LazyDriver(launcher, onStart, refusal));
+    }
+
+    /**
+     * Returns the handler behind a handle created by {@link #create}, or null for any other driver.
+     */
+    static LazyDriver of(WebDriver driver) {
+        if (driver != null && Proxy.isProxyClass(driver.getClass())
+                && Proxy.getInvocationHandler(driver) instanceof LazyDriver handler) {
+            return handler;
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether the real browser session has been launched.
+     */
+    synchronized boolean isStarted() {
+        return delegate != null;
+    }
+
+    /**
+     * Returns the real driver, or null if it was never launched.
+     */
+    synchronized WebDriver delegate() {
+        return delegate;
+    }
+
+    /**
+     * Returns the number of WebDriver calls made through the handle after the call that launched the browser.
+     * Zero means the launch bought nothing beyond that first call (or the browser was started explicitly and never
+     * used).
+     */
+    synchronized long calls() {
+        return calls;
+    }
+
+    /**
+     * Launches the real driver now if it has not been launched yet.
+     */
+    synchronized WebDriver start() {
+        if (delegate == null) {
+            if (refusal != null) {
+                throw new IllegalStateException(refusal);
+            }
+            delegate = launcher.get();
+            if (onStart != null) {
+                onStart.accept(delegate);
+            }
+        }
+        return delegate;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "equals":
+                if (method.getParameterCount() == 1 && method.getParameterTypes()[0] == Object.class) {
+                    return proxy == args[0];
+                }
+                break;
+            case "hashCode":
+                if (method.getParameterCount() == 0) {
+                    return System.identityHashCode(proxy);
+                }
+                break;
+            case "toString":
+                if (method.getParameterCount() == 0) {
+                    WebDriver current = delegate();
+                    return current == null ? "LazyDriver (not started)" : current.toString();
+                }
+                break;
+            case "quit":
+                if (!isStarted()) {
+                    return null;
+                }
+                break;
+            case "getWrappedDriver":
+                return start();
+            default:
+                break;
+        }
+
+        WebDriver target;
+        synchronized (this) {
+            boolean launching = delegate == null;
+            target = start();
+            if (!launching) {
+                calls++;
+            }
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package driver;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import org.openqa.selenium.remote.http.ClientConfig;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+import org.openqa.selenium.remote.http.WebSocket;
+import org.openqa.selenium.remote.http.jdk.JdkHttpClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.EnvironmentManager;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shared HTTP transport for {@link RemoteWebDriver} sessions on Selenium Grid.
+ * <p>
+ * By default every remote session builds its own HTTP client with default timeouts. Here all sessions to the same
+ * Grid share a single JDK {@link java.net.http.HttpClient}, whose connection pool keeps connections alive between
+ * commands and across sessions. Timeouts and new-session retries are read from {@link EnvironmentManager}:
+ * <ul>
+ *     <li>{@code remote.connect.timeout.seconds} – TCP connect timeout</li>
+ *     <li>{@code remote.read.timeout.seconds} – response timeout per command (includes Grid queueing for new sessions)</li>
+ *     <li>{@code remote.new.session.retries} – extra attempts when the Grid cannot create a session</li>
+ *     <li>{@code remote.new.session.retry.delay.ms} – delay between new-session attempts</li>
+ * </ul>
+ * The time spent waiting on the network is recorded per command; {@link #takeThreadStats()} returns it for the
+ * current thread's session and a summary is logged at JVM exit.
+ */
+public class RemoteTransport {
+
+    private static final Logger logger = LoggerFactory.getLogger(RemoteTransport.class);
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(Long.parseLong(EnvironmentManager.get("remote.connect.timeout.seconds", "10")));
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(Long.parseLong(EnvironmentManager.get("remote.read.timeout.seconds", "180")));
+    private static final int NEW_SESSION_RETRIES = Integer.parseInt(EnvironmentManager.get("remote.new.session.retries", "2"));
+    private static final long RETRY_DELAY_MS = Long.parseLong(EnvironmentManager.get("remote.new.session.retry.delay.ms", "2000"));
+
+    private static final HttpClient.Factory JDK_FACTORY = new JdkHttpClient.Factory();
+    private static final Map<String, SharedClient> clients = new ConcurrentHashMap<>();
+
+    /** Runs asynchronous commands, which block on the network, outside the common ForkJoinPool. */
+    private static final ExecutorService asyncExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "remote-transport-async");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final LongAdder totalCommands = new LongAdder();
+    private static final LongAdder totalNanos = new LongAdder();
+    private static final ThreadLocal<long[]> threadStats = ThreadLocal.withInitial(() -> new long[2]);
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(RemoteTransport::shutdown, "remote-transport-shutdown"));
+    }
+
+    /**
+     * Hands out one shared client per Grid endpoint instead of a new client per session.
+     */
+    private static final HttpClient.Factory SHARED_FACTORY = config -> clients.computeIfAbsent(
+            config.baseUri() + "|" + config.connectionTimeout() + "|" + config.readTimeout(),
+            key -> new SharedClient(JDK_FACTORY.createClient(config)));
+
+    /**
+     * Network time spent by the current thread's remote commands since the last call.
+     *
+     * @param commands number of commands sent
+     * @param millis   total time waiting for responses
+     */
+    public record Stats(long commands, long millis) {
+    }
+
+    /**
+     * A pooled client shared by all sessions; sessions closing it on quit must not close the pool.
+     */
+    private static final class SharedClient implements HttpClient {
+        private final HttpClient delegate;
+
+        private SharedClient(HttpClient delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpResponse execute(HttpRequest request) {
+            long start = System.nanoTime();
+            try {
+                return delegate.execute(request);
+            } finally {
+                record(System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public CompletableFuture<HttpResponse> executeAsync(HttpRequest request) {
+            return CompletableFuture.supplyAsync(() -> execute(request), asyncExecutor);
+        }
+
+        @Override
+        public WebSocket openSocket(HttpRequest request, WebSocket.Listener listener) {
+            return delegate.openSocket(request, listener);
+        }
+
+        @Override
+        public void close() {
+            // Shared across sessions; closed at JVM exit
+        }
+    }
+
+    /**
+     * Starts a new session on Selenium Grid through the shared transport, retrying if the Grid fails to create it.
+     *
+     * @param gridUrl the Selenium Grid URL
+     * @param options the requested capabilities
+     * @return the remote driver
+     * @throws MalformedURLException if the grid URL is invalid
+     */
+    public static WebDriver newSession(String gridUrl, Capabilities options) throws MalformedURLException {
+        ClientConfig config = ClientConfig.defaultConfig()
+                .baseUrl(URI.create(gridUrl).toURL())
+                .connectionTimeout(CONNECT_TIMEOUT)
+                .readTimeout(READ_TIMEOUT);
+
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                RemoteWebDriver driver = new RemoteWebDriver(new HttpCommandExecutor(Map.of(), config, SHARED_FACTORY), options);
+                logger.info("🌐 Remote session {} created in {} ms (attempt {})",
+                        driver.getSessionId(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), attempt);
+                return driver;
+            } catch (SessionNotCreatedException | UnreachableBrowserException e) {
+                if (attempt > NEW_SESSION_RETRIES) {
+                    throw e;
+                }
+                logger.warn("⚠️ New session attempt {} on {} failed: {}. Retrying in {} ms",
+                        attempt, gridUrl, String.valueOf(e.getMessage()).lines().findFirst().orElse(""), RETRY_DELAY_MS);
+                sleep(RETRY_DELAY_MS);
+            }
+        }
+    }
+
+    /**
+     * Returns and resets the network time of remote commands sent from the current thread.
+     *
+     * @return the current thread's command count and network time
+     */
+    public static Stats takeThreadStats() {
+        long[] stats = threadStats.get();
+        Stats result = new Stats(stats[0], TimeUnit.NANOSECONDS.toMillis(stats[1]));
+        stats[0] = 0;
+        stats[1] = 0;
+        return result;
+    }
+
+    private static void record(long nanos) {
+        long[] stats = threadStats.get();
+        stats[0]++;
+        stats[1] += nanos;
+        totalCommands.increment();
+        totalNanos.add(nanos);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while retrying new session", e);
+        }
+    }
+
+    private static void shutdown() {
+        long commands = totalCommands.sum();
+        if (commands > 0) {
+            logger.info("🌐 Remote transport summary | clients: {}, commands: {}, avg network time: {} ms",
+                    clients.size(), commands, TimeUnit.NANOSECONDS.toMillis(totalNanos.sum() / commands));
+        }
+        clients.values().forEach(client -> client.delegate.close());
+        clients.clear();
+        asyncExecutor.shutdownNow();
+    }
+}
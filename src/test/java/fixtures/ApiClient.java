@@ -0,0 +1,97 @@
+package fixtures;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.CoreConnectionPNames;
+import utils.EnvironmentManager;
+
+/**
+ * Entry point for REST-Assured requests against the application's API ({@code api.url}).
+ * <p>
+ * All requests share a single Apache HTTP client backed by a pooled connection manager, so test-data setup
+ * from parallel scenarios reuses keep-alive connections instead of opening one per request. Pool size and
+ * timeouts are configured with {@code api.pool.max.total}, {@code api.pool.max.per.route},
+ * {@code api.connect.timeout.ms} and {@code api.read.timeout.ms}.
+ * <p>
+ * A scenario can point its own requests at another API (e.g., a local stand-in) with {@link #useBaseUri(String)};
+ * the override belongs to the current thread and is cleared by {@link ApiFixtures#cleanup()}.
+ */
+public class ApiClient {
+
+    private static final RestAssuredConfig CONFIG = RestAssuredConfig.config()
+            .httpClient(HttpClientConfig.httpClientConfig()
+                    .reuseHttpClientInstance()
+                    .httpClientFactory(ApiClient::createPooledClient));
+
+    private static final ThreadLocal<String> baseUriOverride = new ThreadLocal<>();
+
+    /**
+     * Returns a request specification for the configured API, sending and accepting JSON.
+     *
+     * @return a new request specification
+     */
+    public static RequestSpecification request() {
+        return request(baseUri());
+    }
+
+    /**
+     * Returns a request specification for the given API, sending and accepting JSON.
+     *
+     * @param baseUri the base URI of the API
+     * @return a new request specification
+     */
+    public static RequestSpecification request(String baseUri) {
+        return RestAssured.given(new RequestSpecBuilder()
+                .setBaseUri(baseUri)
+                .setConfig(CONFIG)
+                .setContentType(ContentType.JSON)
+                .setAccept(ContentType.JSON)
+                .build());
+    }
+
+    /**
+     * Returns the base URI of the API under test for the current thread.
+     *
+     * @return the override set by {@link #useBaseUri(String)}, else the value of {@code api.url}
+     */
+    public static String baseUri() {
+        String override = baseUriOverride.get();
+        return override != null ? override : EnvironmentManager.get("api.url", "http://localhost:8080");
+    }
+
+    /**
+     * Sends the current thread's API requests to the given base URI instead of {@code api.url}.
+     *
+     * @param baseUri the base URI to use until {@link #resetBaseUri()}
+     */
+    public static void useBaseUri(String baseUri) {
+        baseUriOverride.set(baseUri);
+    }
+
+    /**
+     * Removes the current thread's base URI override.
+     */
+    public static void resetBaseUri() {
+        baseUriOverride.remove();
+    }
+
+    @SuppressWarnings("deprecation")
+    private static DefaultHttpClient createPooledClient() {
+        PoolingClientConnectionManager pool = new PoolingClientConnectionManager();
+        pool.setMaxTotal(Integer.parseInt(EnvironmentManager.get("api.pool.max.total", "50")));
+        pool.setDefaultMaxPerRoute(Integer.parseInt(EnvironmentManager.get("api.pool.max.per.route", "20")));
+
+        DefaultHttpClient client = new DefaultHttpClient(pool);
+        client.getParams().setIntParameter(CoreConnectionPNames.CONNECTION_TIMEOUT,
+                Integer.parseInt(EnvironmentManager.get("api.connect.timeout.ms", "5000")));
+        client.getParams().setIntParameter(CoreConnectionPNames.SO_TIMEOUT,
+                Integer.parseInt(EnvironmentManager.get("api.read.timeout.ms", "30000")));
+        return client;
+    }
+}
@@ -0,0 +1,167 @@
+package fixtures;
+
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.EnvironmentManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates test data over the API and removes it again after the scenario.
+ * <p>
+ * Every fixture created through {@link #create(String, Object)} or {@link #createAll(List)} is registered for
+ * the current thread and deleted in reverse creation order by {@link #cleanup()}, which {@code Hooks.tearDown}
+ * calls after every scenario. Independent fixtures can be created concurrently with {@link #createAll(List)}
+ * ({@code api.fixture.parallelism} requests at a time).
+ * <p>
+ * The API is expected to answer {@code POST <collection>} with the created resource including its {@code id},
+ * and to delete it with {@code DELETE <collection>/<id>}.
+ */
+public class ApiFixtures {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiFixtures.class);
+
+    private static final int PARALLELISM = Integer.parseInt(EnvironmentManager.get("api.fixture.parallelism", "4"));
+
+    private static final ExecutorService executor = Executors.newFixedThreadPool(PARALLELISM, runnable -> {
+        Thread thread = new Thread(runnable, "api-fixture");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final ThreadLocal<Deque<Fixture>> created = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * A resource created for the current scenario.
+     *
+     * @param collection the collection path it was created in (e.g., "/users")
+     * @param id         the id assigned by the API
+     * @param body       the API's response body
+     */
+    public record Fixture(String collection, String id, JsonPath body) {
+    }
+
+    /**
+     * A resource to be created.
+     *
+     * @param collection the collection path to post to
+     * @param payload    the request body, serialized as JSON
+     */
+    public record FixtureRequest(String collection, Object payload) {
+    }
+
+    /**
+     * Creates a resource and registers it for cleanup after the scenario.
+     *
+     * @param collection the collection path to post to (e.g., "/users")
+     * @param payload    the request body, serialized as JSON
+     * @return the created fixture
+     */
+    public static Fixture create(String collection, Object payload) {
+        Fixture fixture = post(ApiClient.baseUri(), collection, payload);
+        created.get().push(fixture);
+        return fixture;
+    }
+
+    /**
+     * Creates independent resources concurrently and registers all successfully created ones for cleanup.
+     *
+     * @param requests the resources to create
+     * @return the created fixtures, in request order
+     * @throws RuntimeException if any resource could not be created
+     */
+    public static List<Fixture> createAll(List<FixtureRequest> requests) {
+        long start = System.nanoTime();
+        // Resolved on the scenario thread, as the executor threads do not see its base URI override
+        String baseUri = ApiClient.baseUri();
+        List<CompletableFuture<Fixture>> futures = requests.stream()
+                .map(request -> CompletableFuture.supplyAsync(() -> post(baseUri, request.collection(), request.payload()), executor))
+                .toList();
+
+        List<Fixture> fixtures = new ArrayList<>();
+        RuntimeException failure = null;
+        for (CompletableFuture<Fixture> future : futures) {
+            try {
+                Fixture fixture = future.join();
+                created.get().push(fixture);
+                fixtures.add(fixture);
+            } catch (CompletionException e) {
+                if (failure == null) {
+                    failure = new RuntimeException("Failed to create fixtures", e.getCause());
+                } else {
+                    failure.addSuppressed(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        logger.info("🧪 Created {} fixtures in parallel in {} ms",
+                fixtures.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return fixtures;
+    }
+
+    /**
+     * Deletes all fixtures created by the current thread, newest first, then clears the thread's API base URI
+     * override. Resources that are already gone are ignored; other failures are logged and do not stop the
+     * remaining deletions.
+     *
+     * @return the number of fixtures deleted
+     */
+    public static int cleanup() {
+        Deque<Fixture> fixtures = created.get();
+        int deleted = 0;
+        while (!fixtures.isEmpty()) {
+            Fixture fixture = fixtures.pop();
+            try {
+                int status = ApiClient.request().delete(fixture.collection() + "/" + fixture.id()).statusCode();
+                if (status < 300 || status == 404) {
+                    deleted++;
+                } else {
+                    logger.warn("⚠️ Cleanup of {}/{} returned HTTP {}", fixture.collection(), fixture.id(), status);
+                }
+            } catch (Exception e) {
+                logger.warn("⚠️ Cleanup of {}/{} failed: {}", fixture.collection(), fixture.id(), e.getMessage());
+            }
+        }
+        created.remove();
+        ApiClient.resetBaseUri();
+        if (deleted > 0) {
+            logger.info("🧹 Deleted {} API fixtures", deleted);
+        }
+        return deleted;
+    }
+
+    /**
+     * Returns the number of fixtures the current thread has created and not yet cleaned up.
+     *
+     * @return the pending fixture count
+     */
+    public static int pending() {
+        return created.get().size();
+    }
+
+    private static Fixture post(String baseUri, String collection, Object payload) {
+        Response response = ApiClient.request(baseUri).body(payload).post(collection);
+        if (response.statusCode() >= 300) {
+            throw new RuntimeException("POST " + collection + " returned HTTP " + response.statusCode() + ": " + response.asString());
+        }
+        JsonPath body = response.jsonPath();
+        Object id = body.get("id");
+        if (id == null) {
+            throw new RuntimeException("POST " + collection + " response has no id: " + response.asString());
+        }
+        logger.debug("🧪 Created fixture {}/{}", collection, id);
+        return new Fixture(collection, String.valueOf(id), body);
+    }
+}
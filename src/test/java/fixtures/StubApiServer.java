@@ -0,0 +1,145 @@
+package fixtures;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal in-memory REST API used as a local stand-in for {@code api.url} when testing the fixture layer.
+ * <p>
+ * Supports {@code POST /<collection>} (returns the stored object with a generated {@code id}),
+ * {@code GET /<collection>} and {@code GET|DELETE /<collection>/<id>}. An optional per-request delay
+ * simulates network latency so the benefit of parallel fixture creation can be observed.
+ */
+public class StubApiServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StubApiServer.class);
+
+    private static StubApiServer shared;
+
+    private final HttpServer server;
+    private final long latencyMillis;
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<String, Map<String, JSONObject>> collections = new ConcurrentHashMap<>();
+
+    private StubApiServer(long latencyMillis) throws IOException {
+        this.latencyMillis = latencyMillis;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-api");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        this.server.start();
+    }
+
+    /**
+     * Returns the stand-in server shared by this JVM, starting it on a free local port on first use.
+     *
+     * @param latencyMillis artificial delay per request, applied when the server is first started
+     * @return the running server
+     */
+    public static synchronized StubApiServer shared(long latencyMillis) {
+        if (shared == null) {
+            try {
+                shared = new StubApiServer(latencyMillis);
+                logger.info("🔌 Stand-in API server started at {}", shared.baseUrl());
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to start stand-in API server", e);
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Returns the server's base URL (e.g., {@code http://127.0.0.1:41234}).
+     *
+     * @return the base URL
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the number of resources currently stored in a collection.
+     *
+     * @param collection the collection name without slashes (e.g., "users")
+     * @return the resource count
+     */
+    public int count(String collection) {
+        return collections.getOrDefault(collection, Map.of()).size();
+    }
+
+    /**
+     * Returns whether a resource exists.
+     *
+     * @param collection the collection name without slashes
+     * @param id         the resource id
+     * @return true if the resource is stored
+     */
+    public boolean exists(String collection, String id) {
+        return collections.getOrDefault(collection, Map.of()).containsKey(id);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            String[] path = exchange.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/");
+            String method = exchange.getRequestMethod();
+            Map<String, JSONObject> collection = collections.computeIfAbsent(path[0], name -> new ConcurrentHashMap<>());
+
+            if (path.length == 1 && method.equals("POST")) {
+                JSONObject body = new JSONObject(read(exchange.getRequestBody()));
+                String id = String.valueOf(ids.incrementAndGet());
+                body.put("id", id);
+                collection.put(id, body);
+                respond(exchange, 201, body.toString());
+            } else if (path.length == 1 && method.equals("GET")) {
+                respond(exchange, 200, new JSONArray(collection.values()).toString());
+            } else if (path.length == 2 && method.equals("GET")) {
+                JSONObject body = collection.get(path[1]);
+                respond(exchange, body == null ? 404 : 200, body == null ? "{}" : body.toString());
+            } else if (path.length == 2 && method.equals("DELETE")) {
+                respond(exchange, collection.remove(path[1]) == null ? 404 : 204, null);
+            } else {
+                respond(exchange, 405, "{}");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String read(InputStream input) throws IOException {
+        String body = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        return body.isBlank() ? "{}" : body;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package fixtures;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+/**
+ * Minimal local stand-in for the sites used by the example features, so they can run without the internet
+ * (e.g., under load with {@code runners.load.LoadRunner}).
+ * <p>
+ * Mirrors the parts of the-internet.herokuapp.com the Heroku pages use ({@code /login}, {@code /authenticate},
+ * {@code /secure}, {@code /logout} with cookie sessions and flash messages) and a Google-like search form
+ * ({@code /} and {@code /search?q=}). Point the page objects at it with {@code heroku.url} and {@code google.url}.
+ */
+public class StubSiteServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(StubSiteServer.class);
+
+    private static final String USERNAME = "tomsmith";
+    private static final String PASSWORD = "SuperSecretPassword!";
+    private static final String SESSION_COOKIE = "rack.session";
+
+    private static StubSiteServer shared;
+
+    private final HttpServer server;
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+
+    private StubSiteServer() throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "stub-site");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        this.server.start();
+    }
+
+    /**
+     * Returns the stand-in site shared by this JVM, starting it on a free local port on first use.
+     *
+     * @return the running server
+     */
+    public static synchronized StubSiteServer shared() {
+        if (shared == null) {
+            try {
+                shared = new StubSiteServer();
+                logger.info("🔌 Stand-in site started at {}", shared.baseUrl());
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to start stand-in site", e);
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Returns the server's base URL (e.g., {@code http://127.0.0.1:41234}).
+     *
+     * @return the base URL
+     */
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            Map<String, String> query = parse(exchange.getRequestURI().getRawQuery());
+            switch (path) {
+                case "/login" -> page(exchange, "Login Page", flash(query.get("flash")) + """
+                        <form id="login" action="/authenticate" method="post">
+                          <label for="username">Username</label><input type="text" name="username" id="username">
+                          <label for="password">Password</label><input type="password" name="password" id="password">
+                          <button class="radius" type="submit"><i class="fa fa-sign-in"> Login</i></button>
+                        </form>""");
+                case "/authenticate" -> authenticate(exchange);
+                case "/secure" -> {
+                    if (sessions.contains(session(exchange))) {
+                        page(exchange, "Secure Area", """
+                                <div id="flash" class="flash success">You logged into a secure area!</div>
+                                <a class="button secondary radius" href="/logout">Logout</a>""");
+                    } else {
+                        redirect(exchange, "/login?flash=auth", null);
+                    }
+                }
+                case "/logout" -> {
+                    sessions.remove(session(exchange));
+                    redirect(exchange, "/login?flash=logout", SESSION_COOKIE + "=; Path=/; Max-Age=0");
+                }
+                case "/" -> page(exchange, "Search", """
+                        <form action="/search" method="get"><input type="text" name="q" autofocus></form>""");
+                case "/search" -> page(exchange, "Search results",
+                        "<h1>Results for " + escape(query.getOrDefault("q", "")) + "</h1>");
+                default -> respond(exchange, 404, "<h1>Not Found</h1>");
+            }
+        }
+    }
+
+    private void authenticate(HttpExchange exchange) throws IOException {
+        Map<String, String> form = parse(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        if (USERNAME.equals(form.get("username")) && PASSWORD.equals(form.get("password"))) {
+            String session = UUID.randomUUID().toString();
+            sessions.add(session);
+            redirect(exchange, "/secure", SESSION_COOKIE + "=" + session + "; Path=/; HttpOnly");
+        } else {
+            redirect(exchange, "/login?flash=error", null);
+        }
+    }
+
+    private static String flash(String type) {
+        if (type == null) {
+            return "";
+        }
+        return switch (type) {
+            case "logout" -> "<div id=\"flash\" class=\"flash success\">You logged out of the secure area!</div>";
+            case "auth" -> "<div id=\"flash\" class=\"flash error\">You must login to view the secure area!</div>";
+            default -> "<div id=\"flash\" class=\"flash error\">Your username is invalid!</div>";
+        };
+    }
+
+    private static String session(HttpExchange exchange) {
+        List<String> cookies = exchange.getRequestHeaders().getOrDefault("Cookie", List.of());
+        for (String header : cookies) {
+            for (String cookie : header.split(";")) {
+                String[] pair = cookie.trim().split("=", 2);
+                if (pair.length == 2 && pair[0].equals(SESSION_COOKIE)) {
+                    return pair[1];
+                }
+            }
+        }
+        return "";
+    }
+
+    private static Map<String, String> parse(String encoded) {
+        Map<String, String> values = new HashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return values;
+        }
+        for (String pair : encoded.split("&")) {
+            String[] parts = pair.split("=", 2);
+            values.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                    parts.length > 1 ? URLDecoder.decode(parts[1], StandardCharsets.UTF_8) : "");
+        }
+        return values;
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static void page(HttpExchange exchange, String title, String body) throws IOException {
+        respond(exchange, 200, "<!DOCTYPE html><html><head><title>" + title + "</title></head><body>"
+                + body + "</body></html>");
+    }
+
+    private static void redirect(HttpExchange exchange, String location, String cookie) throws IOException {
+        exchange.getResponseHeaders().set("Location", location);
+        if (cookie != null) {
+            exchange.getResponseHeaders().add("Set-Cookie", cookie);
+        }
+        exchange.sendResponseHeaders(303, -1);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String html) throws IOException {
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(bytes);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import driver.DriverFactory;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import utils.EnvironmentManager;
 
 public class GoogleSearchPage {
 
@@ -15,7 +16,7 @@ public class GoogleSearchPage {
     }
 
     public void goToHomePage() {
-        driver.get("https://www.google.com");
+        driver.get(EnvironmentManager.get("google.url", "https://www.google.com"));
     }
 
     public void searchFor(String keyword) {
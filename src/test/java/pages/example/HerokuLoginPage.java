@@ -8,6 +8,7 @@ import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import utils.EnvironmentManager;
 
 import java.time.Duration;
 
@@ -16,18 +17,37 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 public class HerokuLoginPage {
 
     private final WebDriver driver;
+    private final String baseUrl;
     private final By inputUsername = By.id("username");
     private final By inputPassword = By.id("password");
     private final By loginButton = By.xpath("//button[contains(.,'Login')]");
     private final By successMessage = By.xpath("//div[@class='flash success']");
     private final By errorMessage = By.xpath("//div[@class='flash error']");
+    private final By logoutButton = By.xpath("//a[@href='/logout']");
 
     public HerokuLoginPage(WebDriver driver) {
+        this(driver, EnvironmentManager.get("heroku.url", "https://the-internet.herokuapp.com"));
+    }
+
+    public HerokuLoginPage(WebDriver driver, String baseUrl) {
         this.driver = driver;
+        this.baseUrl = baseUrl;
     }
 
     public void userIsOnTheLoginPage() {
-        driver.get("https://the-internet.herokuapp.com/login");
+        driver.get(baseUrl + "/login");
+    }
+
+    public String secureAreaUrl() {
+        return baseUrl + "/secure";
+    }
+
+    public boolean isOnSecureArea() {
+        return driver.getCurrentUrl().endsWith("/secure") && !driver.findElements(logoutButton).isEmpty();
+    }
+
+    public void clickLogoutButton() {
+        driver.findElement(logoutButton).click();
     }
 
     public void enterUsername(String username) {
@@ -48,6 +68,13 @@ public class HerokuLoginPage {
         return driver.findElement(successMessage).isDisplayed();
     }
 
+    public boolean isLogoutMessageVisible() {
+        // The login flash shares the "flash success" class, so the logout flash is told apart by its text
+        new WebDriverWait(driver, Duration.ofSeconds(5))
+                .until(ExpectedConditions.textToBePresentInElementLocated(successMessage, "You logged out"));
+        return driver.findElement(successMessage).isDisplayed();
+    }
+
     public boolean isErrorMessageVisible() {
         new WebDriverWait(driver, Duration.ofSeconds(5))
                 .until(ExpectedConditions.visibilityOfElementLocated(errorMessage));
@@ -0,0 +1,101 @@
+package runners;
+
+import org.json.JSONObject;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.CucumberIndex;
+import utils.EnvironmentManager;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Loads the build-time {@link CucumberIndex} when the JUnit Platform launcher session opens and reports the
+ * time-to-first-scenario of this fork.
+ * <p>
+ * With a fresh index, the glue classes it lists are loaded on background threads while JUnit is still discovering
+ * the runners, so Cucumber's glue scan finds them already loaded and initialized. The index is optional: a missing
+ * or stale one (glue class or feature file changed since {@code ./gradlew cucumberIndex}) is reported and ignored.
+ * The time-to-first-scenario line names the index state, so forks with and without it can be compared.
+ * <p>
+ * Registered through both {@code META-INF/services/org.junit.platform.launcher.LauncherSessionListener} and
+ * {@code META-INF/services/org.junit.platform.launcher.TestExecutionListener}; the two instances share static state.
+ */
+public class CucumberIndexListener implements LauncherSessionListener, TestExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CucumberIndexListener.class);
+
+    private static final String CUCUMBER_ENGINE_SEGMENT = "[engine:cucumber]";
+
+    private static final AtomicBoolean loaded = new AtomicBoolean();
+    private static final AtomicBoolean firstScenarioReported = new AtomicBoolean();
+    private static volatile long sessionOpenedNanos;
+    private static volatile String indexState = "not loaded";
+
+    @Override
+    public void launcherSessionOpened(LauncherSession session) {
+        if (!loaded.compareAndSet(false, true)) {
+            return;
+        }
+        sessionOpenedNanos = System.nanoTime();
+        String file = EnvironmentManager.get("cucumber.index.file", "build/cucumber-index/index.json");
+        Optional<JSONObject> index = CucumberIndex.load(Paths.get(file));
+        if (index.isEmpty()) {
+            indexState = "missing";
+            logger.info("🗂️ No Cucumber index at {} – run ./gradlew cucumberIndex to generate it", file);
+            return;
+        }
+        if (!CucumberIndex.isFresh(index.get())) {
+            indexState = "stale";
+            logger.warn("⚠️ Cucumber index {} is stale – glue or features changed since it was generated", file);
+            return;
+        }
+        indexState = "fresh";
+        List<String> glue = CucumberIndex.glueClasses(index.get());
+        logger.info("🗂️ Cucumber index loaded: {} glue classes, {} pickles", glue.size(), CucumberIndex.countPickles(index.get()));
+        preload(glue);
+    }
+
+    @Override
+    public void executionStarted(TestIdentifier testIdentifier) {
+        if (!testIdentifier.isTest() || !testIdentifier.getUniqueId().contains(CUCUMBER_ENGINE_SEGMENT)
+                || !firstScenarioReported.compareAndSet(false, true)) {
+            return;
+        }
+        long sinceJvmStart = ManagementFactory.getRuntimeMXBean().getUptime();
+        long sinceSession = sessionOpenedNanos == 0 ? -1 : (System.nanoTime() - sessionOpenedNanos) / 1_000_000;
+        logger.info("⏱️ Time to first scenario in fork {}: {} ms since JVM start, {} ms since launcher session (index {})",
+                ProcessHandle.current().pid(), sinceJvmStart, sinceSession, indexState);
+    }
+
+    /**
+     * Loads and initializes the glue classes in parallel, ahead of Cucumber's own sequential scan.
+     */
+    private static void preload(List<String> classNames) {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(4, Math.max(1, classNames.size())), runnable -> {
+            Thread thread = new Thread(runnable, "cucumber-index-preload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (String className : classNames) {
+            executor.execute(() -> {
+                try {
+                    Class.forName(className, true, loader);
+                } catch (ClassNotFoundException | LinkageError e) {
+                    logger.debug("⚠️ Could not preload glue class {}: {}", className, e.getMessage());
+                }
+            });
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,68 @@
+package runners;
+
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfiguration;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfigurationStrategy;
+import utils.BrowserCapacity;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+/**
+ * Custom JUnit Platform parallel execution strategy that sizes the worker pool from available memory
+ * instead of CPU cores.
+ * <p>
+ * Enabled via {@code junit-platform.properties} or a runner's configuration parameters:
+ * <pre>
+ * cucumber.execution.parallel.config.strategy = custom
+ * cucumber.execution.parallel.config.custom.class = runners.ResourceAwareParallelStrategy
+ * </pre>
+ * The pool size is only decided once per engine; per-launch memory re-checks are done by
+ * {@link BrowserCapacity#acquire()} before each browser is started.
+ */
+public class ResourceAwareParallelStrategy implements ParallelExecutionConfigurationStrategy {
+
+    private static final int KEEP_ALIVE_SECONDS = 30;
+
+    @Override
+    public ParallelExecutionConfiguration createConfiguration(ConfigurationParameters configurationParameters) {
+        return new Configuration(BrowserCapacity.computeParallelism());
+    }
+
+    /**
+     * Immutable pool configuration. Mirrors the JUnit defaults for the {@code dynamic} strategy, with the
+     * pool saturating instead of failing when the compensation limit is reached.
+     */
+    private record Configuration(int parallelism) implements ParallelExecutionConfiguration {
+
+        @Override
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        @Override
+        public int getMinimumRunnable() {
+            return parallelism;
+        }
+
+        @Override
+        public int getMaxPoolSize() {
+            return parallelism + 256;
+        }
+
+        @Override
+        public int getCorePoolSize() {
+            return parallelism;
+        }
+
+        @Override
+        public int getKeepAliveSeconds() {
+            return KEEP_ALIVE_SECONDS;
+        }
+
+        @Override
+        public Predicate<? super ForkJoinPool> getSaturatePredicate() {
+            return pool -> true;
+        }
+    }
+}
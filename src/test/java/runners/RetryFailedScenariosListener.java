@@ -0,0 +1,156 @@
+package runners;
+
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.EnvironmentManager;
+import utils.FlakinessHistory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectUniqueId;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * JUnit Platform listener that re-executes failed Cucumber scenarios in the same JVM right after the main pass.
+ * <p>
+ * Registered through {@code META-INF/services/org.junit.platform.launcher.TestExecutionListener} and driven by:
+ * <ul>
+ *     <li>{@code retry.enabled} – turns the retry pass on or off</li>
+ *     <li>{@code retry.count} – maximum number of additional attempts per failed scenario</li>
+ * </ul>
+ * <p>
+ * Only the failed scenarios are selected again (by unique id), so each retry goes back through the owning
+ * {@code @Suite} runner with its glue, tag filter and Allure plugin. Allure therefore records every attempt,
+ * and {@link #currentAttempt()} lets hooks label them. Outcomes are written to {@link FlakinessHistory}.
+ */
+public class RetryFailedScenariosListener implements TestExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RetryFailedScenariosListener.class);
+    private static final String CUCUMBER_ENGINE_SEGMENT = "[engine:cucumber]";
+
+    /**
+     * Set while a retry pass is running; the nested launcher registers this listener again and must ignore it.
+     */
+    private static volatile boolean retrying = false;
+    private static volatile int currentAttempt = 1;
+
+    private final Map<String, String> failed = new ConcurrentHashMap<>();
+    private final Map<String, String> passed = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the attempt number of the scenarios currently executing (1 for the main pass).
+     *
+     * @return the current attempt number
+     */
+    public static int currentAttempt() {
+        return currentAttempt;
+    }
+
+    @Override
+    public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+        if (retrying || !isScenario(testIdentifier)) {
+            return;
+        }
+        if (testExecutionResult.getStatus() == TestExecutionResult.Status.FAILED) {
+            failed.put(testIdentifier.getUniqueId(), testIdentifier.getDisplayName());
+        } else if (testExecutionResult.getStatus() == TestExecutionResult.Status.SUCCESSFUL) {
+            passed.put(testIdentifier.getUniqueId(), testIdentifier.getDisplayName());
+        }
+    }
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        if (retrying || (failed.isEmpty() && passed.isEmpty())) {
+            return;
+        }
+
+        FlakinessHistory history = new FlakinessHistory();
+        passed.forEach((id, name) -> history.recordPassed(historyKey(id), name));
+
+        boolean enabled = Boolean.parseBoolean(EnvironmentManager.get("retry.enabled", "false"));
+        int maxRetries = parseRetryCount();
+        Map<String, String> remaining = new LinkedHashMap<>(failed);
+
+        if (enabled && maxRetries > 0 && !remaining.isEmpty()) {
+            retrying = true;
+            try {
+                for (int retry = 1; retry <= maxRetries && !remaining.isEmpty(); retry++) {
+                    currentAttempt = retry + 1;
+                    logger.info("🔁 Retry attempt {} of {} for {} failed scenario(s)", retry, maxRetries, remaining.size());
+
+                    Set<String> recovered = runAgain(remaining.keySet());
+                    for (String id : recovered) {
+                        String name = remaining.remove(id);
+                        history.recordFlaky(historyKey(id), name, currentAttempt);
+                        logger.info("✅ '{}' passed on attempt {}", name, currentAttempt);
+                    }
+                }
+            } finally {
+                retrying = false;
+                currentAttempt = 1;
+            }
+        }
+
+        int attempts = enabled ? maxRetries + 1 : 1;
+        remaining.forEach((id, name) -> {
+            history.recordFailed(historyKey(id), name, attempts);
+            logger.warn("❌ '{}' failed after {} attempt(s)", name, attempts);
+        });
+        history.save();
+    }
+
+    /**
+     * Executes the given scenarios once more with a fresh launcher and returns the ids that passed.
+     */
+    private Set<String> runAgain(Set<String> uniqueIds) {
+        LauncherDiscoveryRequest discoveryRequest = request()
+                .selectors(uniqueIds.stream().map(id -> selectUniqueId(id)).toList())
+                .build();
+
+        Set<String> recovered = ConcurrentHashMap.newKeySet();
+        Launcher launcher = LauncherFactory.create();
+        launcher.execute(discoveryRequest, new TestExecutionListener() {
+            @Override
+            public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+                if (isScenario(testIdentifier)
+                        && testExecutionResult.getStatus() == TestExecutionResult.Status.SUCCESSFUL) {
+                    recovered.add(testIdentifier.getUniqueId());
+                }
+            }
+        });
+        return recovered;
+    }
+
+    private static boolean isScenario(TestIdentifier testIdentifier) {
+        return testIdentifier.isTest() && testIdentifier.getUniqueId().contains(CUCUMBER_ENGINE_SEGMENT);
+    }
+
+    /**
+     * Strips the suite prefix from a unique id so the same scenario maps to one history entry
+     * regardless of which runner executed it.
+     */
+    private static String historyKey(String uniqueId) {
+        int index = uniqueId.indexOf(CUCUMBER_ENGINE_SEGMENT);
+        return index >= 0 ? uniqueId.substring(index) : uniqueId;
+    }
+
+    private static int parseRetryCount() {
+        String value = EnvironmentManager.get("retry.count", "0");
+        try {
+            return Math.max(0, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            logger.warn("⚠️ Invalid retry.count '{}', retries disabled", value);
+            return 0;
+        }
+    }
+}
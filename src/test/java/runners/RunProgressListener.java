@@ -0,0 +1,28 @@
+package runners;
+
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import utils.RunProgress;
+
+/**
+ * JUnit Platform listener that starts {@link RunProgress} reporting and tells it how many Cucumber scenarios
+ * this JVM is going to run, so it can compute an ETA.
+ * <p>
+ * Registered through {@code META-INF/services/org.junit.platform.launcher.TestExecutionListener}. Nested retry
+ * passes add their re-selected scenarios to the plan as well.
+ */
+public class RunProgressListener implements TestExecutionListener {
+
+    private static final String CUCUMBER_ENGINE_SEGMENT = "[engine:cucumber]";
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        RunProgress.start();
+        RunProgress.addPlanned(testPlan.countTestIdentifiers(RunProgressListener::isScenario));
+    }
+
+    private static boolean isScenario(TestIdentifier testIdentifier) {
+        return testIdentifier.isTest() && testIdentifier.getUniqueId().contains(CUCUMBER_ENGINE_SEGMENT);
+    }
+}
@@ -0,0 +1,18 @@
+package runners.api;
+
+import org.junit.platform.suite.api.ConfigurationParameter;
+import org.junit.platform.suite.api.IncludeEngines;
+import org.junit.platform.suite.api.SelectClasspathResource;
+import org.junit.platform.suite.api.Suite;
+
+import static io.cucumber.junit.platform.engine.Constants.*;
+
+@Suite
+@IncludeEngines("cucumber")
+@SelectClasspathResource("features/api")
+@ConfigurationParameter(key = GLUE_PROPERTY_NAME, value = "steps, steps.api")
+@ConfigurationParameter(key = FILTER_TAGS_PROPERTY_NAME, value = "@api")
+@ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value = "pretty, io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm")
+@ConfigurationParameter(key = "cucumber.execution.parallel.enabled", value = "true")
+public class ApiFixturesRunner {
+}
@@ -14,6 +14,7 @@ import static io.cucumber.junit.platform.engine.Constants.*;
 @ConfigurationParameter(key = FILTER_TAGS_PROPERTY_NAME, value = "@parallel")
 @ConfigurationParameter(key = PLUGIN_PROPERTY_NAME, value = "pretty, io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm")
 @ConfigurationParameter(key = "cucumber.execution.parallel.enabled", value = "true")
-@ConfigurationParameter(key = "cucumber.execution.parallel.config.strategy", value = "dynamic")
+@ConfigurationParameter(key = "cucumber.execution.parallel.config.strategy", value = "custom")
+@ConfigurationParameter(key = "cucumber.execution.parallel.config.custom.class", value = "runners.ResourceAwareParallelStrategy")
 public class ParallelExampleRunner {
 }
@@ -0,0 +1,164 @@
+package runners.load;
+
+import fixtures.StubSiteServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.EnvironmentManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static io.cucumber.junit.platform.engine.Constants.EXECUTION_PARALLEL_ENABLED_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.FILTER_TAGS_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.GLUE_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PUBLISH_QUIET_PROPERTY_NAME;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClasspathResource;
+import static org.junit.platform.launcher.EngineFilter.includeEngines;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * Compares step latencies of the example features between ChromeDriver and the chromedriver-less
+ * {@code CHROME_CDP} mode (see {@code driver.CdpDriver}).
+ * <p>
+ * The scenarios matching {@code latency.features} and {@code latency.tags} run headless against the local
+ * {@link StubSiteServer}, one browser at a time, {@code latency.iterations} times per browser of
+ * {@code latency.browsers} after {@code latency.warmup.iterations} unmeasured runs. Latencies are recorded by
+ * {@link LoadMetricsPlugin} as in load mode, so the browser launch is measured in the {@code [BEFORE hooks]} row.
+ * The per-step p50 and p95 of each browser and the change against the first browser are printed and written to
+ * {@code latency.report.dir}. Run with {@code ./gradlew driverLatencyBenchmark -Dlatency.iterations=20}.
+ */
+public class DriverLatencyBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(DriverLatencyBenchmark.class);
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("load.mode", "true");
+        System.setProperty("headless", "true");
+
+        List<String> browsers = List.of(EnvironmentManager.get("latency.browsers", "chrome,chrome_cdp").split("\\s*,\\s*"));
+        int iterations = Integer.parseInt(EnvironmentManager.get("latency.iterations", "10"));
+        int warmup = Integer.parseInt(EnvironmentManager.get("latency.warmup.iterations", "2"));
+        String features = EnvironmentManager.get("latency.features", "features/example");
+        String tags = EnvironmentManager.get("latency.tags", "@heroku");
+        String glue = EnvironmentManager.get("latency.glue", "steps, steps.example");
+        Path reportDir = Paths.get(EnvironmentManager.get("latency.report.dir", "target/load-report"));
+
+        String baseUrl = StubSiteServer.shared().baseUrl();
+        System.setProperty("heroku.url", baseUrl);
+        System.setProperty("google.url", baseUrl);
+
+        LauncherDiscoveryRequest request = request()
+                .selectors(selectClasspathResource(features))
+                .filters(includeEngines("cucumber"))
+                .configurationParameter(GLUE_PROPERTY_NAME, glue)
+                .configurationParameter(FILTER_TAGS_PROPERTY_NAME, tags)
+                .configurationParameter(PLUGIN_PROPERTY_NAME, LoadMetricsPlugin.class.getName())
+                .configurationParameter(PLUGIN_PUBLISH_QUIET_PROPERTY_NAME, "true")
+                .configurationParameter(EXECUTION_PARALLEL_ENABLED_PROPERTY_NAME, "false")
+                .build();
+        // Without the auto-registered listeners (retries, progress, index), as in load mode
+        Launcher launcher = LauncherFactory.create(LauncherConfig.builder()
+                .enableTestExecutionListenerAutoRegistration(false)
+                .enableLauncherSessionListenerAutoRegistration(false)
+                .build());
+
+        Map<String, JSONObject> results = new LinkedHashMap<>();
+        for (String browser : browsers) {
+            System.setProperty("browser", browser);
+            logger.info("⏱️ Benchmarking {}: {} warm-up + {} measured runs of {} {}", browser, warmup, iterations,
+                    features, tags);
+            for (int i = 0; i < warmup; i++) {
+                launcher.execute(request);
+            }
+            LoadMetrics.reset();
+            for (int i = 0; i < iterations; i++) {
+                launcher.execute(request);
+            }
+            results.put(browser, LoadMetrics.summary());
+            LoadMetrics.reset();
+        }
+
+        JSONObject report = new JSONObject()
+                .put("startedAt", Instant.now().toString())
+                .put("iterations", iterations)
+                .put("warmupIterations", warmup)
+                .put("features", features)
+                .put("tags", tags)
+                .put("browsers", new JSONObject(results));
+        write(report, results, reportDir);
+        System.exit(0);
+    }
+
+    private static void write(JSONObject report, Map<String, JSONObject> results, Path reportDir) throws IOException {
+        List<String> browsers = new ArrayList<>(results.keySet());
+        StringBuilder text = new StringBuilder(String.format("Driver latency – %d runs per browser, p50/p95 in ms%n",
+                report.getInt("iterations")));
+        for (String section : new String[]{"scenarios", "steps"}) {
+            Map<String, Map<String, JSONObject>> rows = rows(results, section);
+            text.append(String.format("%n%-50s", section.toUpperCase()));
+            browsers.forEach(browser -> text.append(String.format(" %17s", browser)));
+            if (browsers.size() > 1) {
+                text.append(String.format(" %8s", "Δ p50"));
+            }
+            text.append(System.lineSeparator());
+            for (Map.Entry<String, Map<String, JSONObject>> row : rows.entrySet()) {
+                String name = row.getKey();
+                text.append(String.format("%-50s", name.length() > 50 ? name.substring(0, 47) + "..." : name));
+                for (String browser : browsers) {
+                    JSONObject cell = row.getValue().get(browser);
+                    text.append(cell == null ? String.format(" %17s", "–")
+                            : String.format(" %8d/%-8d", cell.getLong("p50"), cell.getLong("p95")));
+                }
+                JSONObject baseline = row.getValue().get(browsers.get(0));
+                JSONObject last = row.getValue().get(browsers.get(browsers.size() - 1));
+                boolean errors = row.getValue().values().stream().anyMatch(cell -> cell.getInt("errors") > 0);
+                if (browsers.size() > 1 && errors) {
+                    // Failing runs end early, so their latencies would flatter the mode that broke
+                    text.append(String.format(" %8s", "errors"));
+                } else if (browsers.size() > 1 && baseline != null && last != null && baseline.getLong("p50") > 0) {
+                    text.append(String.format(" %+7.0f%%", 100.0 * (last.getLong("p50") - baseline.getLong("p50"))
+                            / baseline.getLong("p50")));
+                }
+                text.append(System.lineSeparator());
+            }
+        }
+        text.append(String.format("%nΔ p50 compares %s against %s; rows with errors are not compared (counts are in the JSON report).%n",
+                browsers.get(browsers.size() - 1), browsers.get(0)));
+
+        Files.createDirectories(reportDir);
+        Files.writeString(reportDir.resolve("driver-latency.json"), report.toString(2), StandardCharsets.UTF_8);
+        Files.writeString(reportDir.resolve("driver-latency.txt"), text, StandardCharsets.UTF_8);
+        System.out.println(text);
+        logger.info("📊 Driver latency report written to {}", reportDir.toAbsolutePath());
+    }
+
+    /**
+     * Groups the summaries of one section by step or scenario name, then by browser, in order of first execution.
+     */
+    private static Map<String, Map<String, JSONObject>> rows(Map<String, JSONObject> results, String section) {
+        Map<String, Map<String, JSONObject>> rows = new LinkedHashMap<>();
+        results.forEach((browser, summary) -> {
+            JSONArray series = summary.getJSONArray(section);
+            for (int i = 0; i < series.length(); i++) {
+                JSONObject row = series.getJSONObject(i);
+                rows.computeIfAbsent(row.getString("name"), key -> new LinkedHashMap<>()).put(browser, row);
+            }
+        });
+        return rows;
+    }
+}
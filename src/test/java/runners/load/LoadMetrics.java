@@ -0,0 +1,95 @@
+package runners.load;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latency samples and error counts per step and per scenario, shared by all virtual users of a load run.
+ */
+class LoadMetrics {
+
+    private static final Map<String, Series> steps = new ConcurrentHashMap<>();
+    private static final Map<String, Series> scenarios = new ConcurrentHashMap<>();
+
+    /**
+     * Latency samples of one step or scenario.
+     */
+    private static final class Series {
+        private final long firstSeen = System.nanoTime();
+        private long[] samples = new long[256];
+        private int count;
+        private int errors;
+
+        synchronized void add(long nanos, boolean error) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        synchronized JSONObject summarize(String name) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            return new JSONObject()
+                    .put("name", name)
+                    .put("count", count)
+                    .put("errors", errors)
+                    .put("errorRate", count == 0 ? 0 : Math.round(10000.0 * errors / count) / 10000.0)
+                    .put("p50", percentile(sorted, 50))
+                    .put("p90", percentile(sorted, 90))
+                    .put("p95", percentile(sorted, 95))
+                    .put("p99", percentile(sorted, 99))
+                    .put("max", count == 0 ? 0 : sorted[count - 1] / 1_000_000);
+        }
+
+        private static long percentile(long[] sorted, int percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000;
+        }
+    }
+
+    static void recordStep(String name, Duration duration, boolean error) {
+        steps.computeIfAbsent(name, key -> new Series()).add(duration.toNanos(), error);
+    }
+
+    static void recordScenario(String name, Duration duration, boolean error) {
+        scenarios.computeIfAbsent(name, key -> new Series()).add(duration.toNanos(), error);
+    }
+
+    /**
+     * Returns the per-step and per-scenario summaries (latencies in ms), steps in order of first execution.
+     */
+    static JSONObject summary() {
+        return new JSONObject()
+                .put("scenarios", summarize(scenarios))
+                .put("steps", summarize(steps));
+    }
+
+    /**
+     * Discards all samples, e.g., between the runs of a benchmark.
+     */
+    static void reset() {
+        steps.clear();
+        scenarios.clear();
+    }
+
+    private static JSONArray summarize(Map<String, Series> series) {
+        JSONArray summaries = new JSONArray();
+        series.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().firstSeen))
+                .forEach(entry -> summaries.put(entry.getValue().summarize(entry.getKey())));
+        return summaries;
+    }
+}
@@ -0,0 +1,33 @@
+package runners.load;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+
+/**
+ * Cucumber plugin used by {@link LoadRunner} to record step and scenario latencies into {@link LoadMetrics}.
+ * Only durations and statuses are read, so capture overhead is a map lookup per step.
+ */
+public class LoadMetricsPlugin implements ConcurrentEventListener {
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, event -> {
+            Status status = event.getResult().getStatus();
+            if (status == Status.SKIPPED) {
+                return;
+            }
+            if (event.getTestStep() instanceof PickleStepTestStep step) {
+                LoadMetrics.recordStep(step.getStep().getText(), event.getResult().getDuration(), !status.isOk());
+            } else if (event.getTestStep() instanceof HookTestStep hook) {
+                LoadMetrics.recordStep("[" + hook.getHookType() + " hooks]", event.getResult().getDuration(), !status.isOk());
+            }
+        });
+        publisher.registerHandlerFor(TestCaseFinished.class, event -> LoadMetrics.recordScenario(
+                event.getTestCase().getName(), event.getResult().getDuration(), !event.getResult().getStatus().isOk()));
+    }
+}
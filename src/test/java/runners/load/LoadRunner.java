@@ -0,0 +1,169 @@
+package runners.load;
+
+import fixtures.StubSiteServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.EnvironmentManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.cucumber.junit.platform.engine.Constants.EXECUTION_PARALLEL_ENABLED_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.FILTER_TAGS_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.GLUE_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PUBLISH_QUIET_PROPERTY_NAME;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClasspathResource;
+import static org.junit.platform.launcher.EngineFilter.includeEngines;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * Load mode: replays the selected Cucumber scenarios as concurrent headless virtual users.
+ * <p>
+ * Each of {@code load.users} users runs the scenarios matching {@code load.features} and {@code load.tags} in a loop
+ * on its own thread (and browser) until {@code load.duration.seconds} have passed; users start evenly spread over
+ * {@code load.ramp.up.seconds} and pause {@code load.think.time.ms} between iterations. {@code Hooks} detect
+ * {@code load.mode} and skip browser logging, screencasts, screenshots and Allure attachments; the browser is launched
+ * in the {@code @Before} hook, so it is timed there and not in the first step. Retries and the framework's
+ * JUnit listeners are not active.
+ * <p>
+ * With {@code load.site=stub} (the default) {@code heroku.url} and {@code google.url} point at a local
+ * {@link StubSiteServer}; use {@code load.site=live} to load the configured sites. Per-step and per-scenario
+ * latency percentiles and error rates are printed and written to {@code load.report.dir}. Run with
+ * {@code ./gradlew loadTest -Dload.users=10 -Dload.duration.seconds=120}.
+ */
+public class LoadRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadRunner.class);
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("load.mode", "true");
+        System.setProperty("headless", "true");
+
+        int users = Integer.parseInt(EnvironmentManager.get("load.users", "5"));
+        long rampUpMs = TimeUnit.SECONDS.toMillis(Long.parseLong(EnvironmentManager.get("load.ramp.up.seconds", "10")));
+        long durationMs = TimeUnit.SECONDS.toMillis(Long.parseLong(EnvironmentManager.get("load.duration.seconds", "60")));
+        long thinkTimeMs = Long.parseLong(EnvironmentManager.get("load.think.time.ms", "0"));
+        String features = EnvironmentManager.get("load.features", "features/example");
+        String tags = EnvironmentManager.get("load.tags", "@heroku");
+        String glue = EnvironmentManager.get("load.glue", "steps, steps.example");
+        Path reportDir = Paths.get(EnvironmentManager.get("load.report.dir", "target/load-report"));
+
+        if (EnvironmentManager.get("load.site", "stub").equalsIgnoreCase("stub")) {
+            String baseUrl = StubSiteServer.shared().baseUrl();
+            System.setProperty("heroku.url", baseUrl);
+            System.setProperty("google.url", baseUrl);
+        }
+
+        LauncherDiscoveryRequest request = request()
+                .selectors(selectClasspathResource(features))
+                .filters(includeEngines("cucumber"))
+                .configurationParameter(GLUE_PROPERTY_NAME, glue)
+                .configurationParameter(FILTER_TAGS_PROPERTY_NAME, tags)
+                .configurationParameter(PLUGIN_PROPERTY_NAME, LoadMetricsPlugin.class.getName())
+                .configurationParameter(PLUGIN_PUBLISH_QUIET_PROPERTY_NAME, "true")
+                .configurationParameter(EXECUTION_PARALLEL_ENABLED_PROPERTY_NAME, "false")
+                .build();
+
+        logger.info("🏋️ Load run: {} users, {} s ramp-up, {} s duration, {} {}", users, rampUpMs / 1000,
+                durationMs / 1000, features, tags);
+
+        LongAdder iterations = new LongAdder();
+        AtomicInteger activeUsers = new AtomicInteger();
+        AtomicInteger peakUsers = new AtomicInteger();
+        long start = System.currentTimeMillis();
+        long end = start + durationMs;
+
+        AtomicInteger userIds = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(users,
+                runnable -> new Thread(runnable, "load-user-" + userIds.incrementAndGet()));
+        for (int user = 0; user < users; user++) {
+            long startAt = start + (users == 1 ? 0 : rampUpMs * user / (users - 1));
+            executor.execute(() -> runUser(request, startAt, end, thinkTimeMs, iterations, activeUsers, peakUsers));
+        }
+        executor.shutdown();
+        executor.awaitTermination(durationMs + TimeUnit.MINUTES.toMillis(10), TimeUnit.MILLISECONDS);
+
+        double seconds = (System.currentTimeMillis() - start) / 1000.0;
+        JSONObject report = LoadMetrics.summary()
+                .put("startedAt", Instant.ofEpochMilli(start).toString())
+                .put("durationSeconds", Math.round(seconds))
+                .put("users", users)
+                .put("peakUsers", peakUsers.get())
+                .put("rampUpSeconds", rampUpMs / 1000)
+                .put("features", features)
+                .put("tags", tags)
+                .put("iterations", iterations.sum())
+                .put("iterationsPerSecond", Math.round(iterations.sum() / seconds * 100) / 100.0);
+        write(report, reportDir);
+        System.exit(0);
+    }
+
+    /**
+     * Runs the scenarios in a loop on the current thread until the end of the load run.
+     */
+    private static void runUser(LauncherDiscoveryRequest request, long startAt, long end, long thinkTimeMs,
+                                LongAdder iterations, AtomicInteger activeUsers, AtomicInteger peakUsers) {
+        // Own launcher per user, without the auto-registered listeners (retries, progress, index)
+        Launcher launcher = LauncherFactory.create(LauncherConfig.builder()
+                .enableTestExecutionListenerAutoRegistration(false)
+                .enableLauncherSessionListenerAutoRegistration(false)
+                .build());
+        try {
+            Thread.sleep(Math.max(0, startAt - System.currentTimeMillis()));
+            peakUsers.accumulateAndGet(activeUsers.incrementAndGet(), Math::max);
+            while (System.currentTimeMillis() < end) {
+                launcher.execute(request);
+                iterations.increment();
+                if (thinkTimeMs > 0) {
+                    Thread.sleep(thinkTimeMs);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            activeUsers.decrementAndGet();
+        }
+    }
+
+    private static void write(JSONObject report, Path reportDir) throws IOException {
+        StringBuilder text = new StringBuilder(String.format("Load report – %d users, %d iterations in %d s (%.2f/s)%n",
+                report.getInt("users"), report.getLong("iterations"), report.getLong("durationSeconds"),
+                report.getDouble("iterationsPerSecond")));
+        for (String section : new String[]{"scenarios", "steps"}) {
+            text.append(String.format("%n%-60s %7s %7s %7s %7s %7s %7s %7s %7s%n", section.toUpperCase(),
+                    "count", "errors", "err%", "p50", "p90", "p95", "p99", "max"));
+            JSONArray rows = report.getJSONArray(section);
+            for (int i = 0; i < rows.length(); i++) {
+                JSONObject row = rows.getJSONObject(i);
+                String name = row.getString("name");
+                text.append(String.format("%-60s %7d %7d %6.2f%% %7d %7d %7d %7d %7d%n",
+                        name.length() > 60 ? name.substring(0, 57) + "..." : name,
+                        row.getInt("count"), row.getInt("errors"), row.getDouble("errorRate") * 100,
+                        row.getLong("p50"), row.getLong("p90"), row.getLong("p95"), row.getLong("p99"), row.getLong("max")));
+            }
+        }
+        text.append("\nLatencies in ms.\n");
+
+        Files.createDirectories(reportDir);
+        Files.writeString(reportDir.resolve("load-report.json"), report.toString(2), StandardCharsets.UTF_8);
+        Files.writeString(reportDir.resolve("load-report.txt"), text, StandardCharsets.UTF_8);
+        System.out.println(text);
+        logger.info("📊 Load report written to {}", reportDir.toAbsolutePath());
+    }
+}
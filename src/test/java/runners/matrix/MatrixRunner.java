@@ -0,0 +1,121 @@
+package runners.matrix;
+
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
+import org.junit.platform.launcher.listeners.TestExecutionSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import utils.EnvironmentManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.cucumber.junit.platform.engine.Constants.EXECUTION_PARALLEL_ENABLED_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.FILTER_TAGS_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.GLUE_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PARALLEL_CONFIG_CUSTOM_CLASS_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PARALLEL_CONFIG_STRATEGY_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PROPERTY_NAME;
+import static io.cucumber.junit.platform.engine.Constants.PLUGIN_PUBLISH_QUIET_PROPERTY_NAME;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClasspathResource;
+import static org.junit.platform.launcher.EngineFilter.includeEngines;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * Matrix mode: runs the selected Cucumber scenarios once per environment × browser combination, all in one JVM.
+ * <p>
+ * Each combination of {@code matrix.envs} and {@code matrix.browsers} gets its own Cucumber execution of
+ * {@code matrix.features} filtered by {@code matrix.tags}; up to {@code matrix.parallel.combinations} executions run
+ * at the same time, each with parallel scenarios sized by {@code runners.ResourceAwareParallelStrategy}. Browser
+ * launches across all of them still go through the launch permits of {@code driver.DriverFactory}.
+ * {@link MatrixScopePlugin} gives every scenario thread a scoped {@link EnvironmentManager} context, so
+ * {@code config/<env>.properties} and {@code browser} apply per scenario; {@code Hooks} label the Allure results
+ * with the combination. Retries and the framework's JUnit listeners are not active. Run with
+ * {@code ./gradlew matrixTest -Dmatrix.envs=dev,stag -Dmatrix.browsers=chrome,firefox}.
+ */
+public class MatrixRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MatrixRunner.class);
+
+    public static void main(String[] args) throws Exception {
+        List<String> envs = list(EnvironmentManager.get("matrix.envs", "dev"));
+        List<String> browsers = list(EnvironmentManager.get("matrix.browsers", "chrome"));
+        String features = EnvironmentManager.get("matrix.features", "features/example");
+        String tags = EnvironmentManager.get("matrix.tags", "@parallel");
+        String glue = EnvironmentManager.get("matrix.glue", "steps, steps.example");
+        int parallelCombinations = Integer.parseInt(EnvironmentManager.get("matrix.parallel.combinations", "2"));
+
+        Map<String, Future<TestExecutionSummary>> results = new LinkedHashMap<>();
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelCombinations),
+                runnable -> new Thread(runnable, "matrix-" + threadIds.incrementAndGet()));
+        logger.info("🧮 Matrix run: {} × {} on {} {}", envs, browsers, features, tags);
+        for (String env : envs) {
+            for (String browser : browsers) {
+                String combination = env + "/" + browser;
+                LauncherDiscoveryRequest request = request()
+                        .selectors(selectClasspathResource(features))
+                        .filters(includeEngines("cucumber"))
+                        .configurationParameter(GLUE_PROPERTY_NAME, glue)
+                        .configurationParameter(FILTER_TAGS_PROPERTY_NAME, tags)
+                        .configurationParameter(PLUGIN_PROPERTY_NAME, MatrixScopePlugin.class.getName() + ":" + combination
+                                + ", io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm")
+                        .configurationParameter(PLUGIN_PUBLISH_QUIET_PROPERTY_NAME, "true")
+                        .configurationParameter(EXECUTION_PARALLEL_ENABLED_PROPERTY_NAME, "true")
+                        .configurationParameter(PARALLEL_CONFIG_STRATEGY_PROPERTY_NAME, "custom")
+                        .configurationParameter(PARALLEL_CONFIG_CUSTOM_CLASS_PROPERTY_NAME, "runners.ResourceAwareParallelStrategy")
+                        .build();
+                results.put(combination, executor.submit(() -> run(combination, request)));
+            }
+        }
+        executor.shutdown();
+
+        boolean failed = false;
+        StringBuilder table = new StringBuilder(String.format("%nMatrix results%n%-30s %7s %7s %7s %9s%n",
+                "combination", "tests", "passed", "failed", "seconds"));
+        for (Map.Entry<String, Future<TestExecutionSummary>> result : results.entrySet()) {
+            TestExecutionSummary summary = result.getValue().get();
+            long failures = summary.getTotalFailureCount();
+            failed |= failures > 0;
+            table.append(String.format("%-30s %7d %7d %7d %9.1f%n", result.getKey(), summary.getTestsStartedCount(),
+                    summary.getTestsSucceededCount(), failures,
+                    (summary.getTimeFinished() - summary.getTimeStarted()) / 1000.0));
+        }
+        System.out.println(table);
+        System.exit(failed ? 1 : 0);
+    }
+
+    /**
+     * Runs one combination's Cucumber execution on the current thread.
+     */
+    private static TestExecutionSummary run(String combination, LauncherDiscoveryRequest request) {
+        // Own launcher per combination, without the auto-registered listeners (retries, progress, index)
+        Launcher launcher = LauncherFactory.create(LauncherConfig.builder()
+                .enableTestExecutionListenerAutoRegistration(false)
+                .enableLauncherSessionListenerAutoRegistration(false)
+                .build());
+        SummaryGeneratingListener listener = new SummaryGeneratingListener();
+        logger.info("▶️ Starting combination {}", combination);
+        launcher.execute(request, listener);
+        TestExecutionSummary summary = listener.getSummary();
+        logger.info("🏁 Combination {} finished: {} passed, {} failed", combination,
+                summary.getTestsSucceededCount(), summary.getTotalFailureCount());
+        return summary;
+    }
+
+    private static List<String> list(String value) {
+        List<String> values = new ArrayList<>();
+        Arrays.stream(value.split(",")).map(String::trim).filter(s -> !s.isEmpty()).forEach(values::add);
+        return values;
+    }
+}
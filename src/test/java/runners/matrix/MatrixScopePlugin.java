@@ -0,0 +1,38 @@
+package runners.matrix;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestCaseStarted;
+import utils.EnvironmentManager;
+
+import java.util.Map;
+
+/**
+ * Cucumber plugin used by {@link MatrixRunner} to run every scenario of one execution in a single environment ×
+ * browser combination, given as the plugin argument (e.g., {@code runners.matrix.MatrixScopePlugin:stag/firefox}).
+ * <p>
+ * Test case events are published on the thread that runs the scenario, so the scope set here covers its hooks,
+ * steps and lazily launched browser, while other combinations run on other threads of the same JVM.
+ */
+public class MatrixScopePlugin implements ConcurrentEventListener {
+
+    private final String env;
+    private final String browser;
+
+    public MatrixScopePlugin(String combination) {
+        String[] parts = combination.split("/", 2);
+        if (parts.length != 2 || parts[0].isBlank() || parts[1].isBlank()) {
+            throw new IllegalArgumentException("Expected <env>/<browser> but got: " + combination);
+        }
+        this.env = parts[0].trim();
+        this.browser = parts[1].trim();
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestCaseStarted.class, event ->
+                EnvironmentManager.enterScope(env, Map.of("browser", browser)));
+        publisher.registerHandlerFor(TestCaseFinished.class, event -> EnvironmentManager.exitScope());
+    }
+}
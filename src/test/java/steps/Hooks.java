@@ -1,21 +1,32 @@
 package steps;
 
+import fixtures.ApiFixtures;
 import io.cucumber.java.After;
 import io.cucumber.java.Before;
 import io.cucumber.java.Scenario;
+import io.qameta.allure.Allure;
+import io.qameta.allure.model.Parameter;
 import org.apache.commons.io.FileUtils;
+import org.openqa.selenium.HasCapabilities;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
-import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.WebDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import runners.RetryFailedScenariosListener;
 import utils.BrowserLogUtils;
 import utils.EnvironmentManager;
-import utils.FileManager;
+import utils.HostCircuitBreaker;
+import utils.LogArchive;
+import utils.PagePerformance;
+import utils.ProcessMonitor;
+import utils.RunProgress;
+import utils.ScenarioLogAppender;
+import utils.ScenarioWatchdog;
+import utils.ScreencastRecorder;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
@@ -28,34 +39,94 @@ import static utils.ScreenshotUtils.captureScreenshot;
  * <p>
  * This class initializes the driver and logging tools (CDP or BrowserMob Proxy) before each scenario,
  * and handles log capturing, screenshot collection, and Allure report attachment after each scenario.
+ * The scenario id, browser and worker are kept in the SLF4J MDC while the scenario runs.
+ * Under {@code runners.matrix.MatrixRunner}, results are labelled with their environment × browser combination.
  */
 public class Hooks {
 
     private static final Logger logger = LoggerFactory.getLogger(Hooks.class);
+    // Set by runners.load.LoadRunner: no browser logging, screenshots or attachments while generating load
+    private static final boolean LOAD_MODE = Boolean.parseBoolean(EnvironmentManager.get("load.mode", "false"));
     private String sanitizedScenarioName;
     private long startTime;
-    private static final String LOG_DIR = "target/logs";
 
     /**
      * Cucumber {@code @Before} hook.
      * <p>
-     * Initializes WebDriver, sanitizes the scenario name for log filenames, and enables logging
-     * based on the browser type. Also deletes any existing logs for the same scenario name.
+     * Prepares a lazy WebDriver handle, derives the scenario's log archive key from its name and id, and
+     * registers logging based on the browser type. The browser is only launched when a step first uses the
+     * driver; scenarios tagged {@code @nobrowser} never get one.
      *
      * @param scenario the current Cucumber scenario
      */
     @Before
     public void setUp(Scenario scenario) {
-        sanitizedScenarioName = sanitize(scenario.getName()) + "_" + Thread.currentThread().threadId();
-        cleanOldLogs(sanitizedScenarioName);
+        // Pickle ids are unique per execution, so reruns and parallel copies never share an archive key
+        sanitizedScenarioName = sanitize(scenario.getName() + "_" + scenario.getId());
         startTime = System.currentTimeMillis();
-        startDriver();
+        RunProgress.scenarioStarted();
 
-        RemoteWebDriver driver = (RemoteWebDriver) getDriver();
-        String browserName = driver.getCapabilities().getBrowserName();
+        // Route this worker's framework logs to the scenario's own buffer (see ScenarioLogAppender)
+        MDC.put(ScenarioLogAppender.MDC_KEY, sanitizedScenarioName);
+        MDC.put("worker", Thread.currentThread().getName());
+        ScenarioLogAppender.begin(sanitizedScenarioName);
+
+        int attempt = RetryFailedScenariosListener.currentAttempt();
+        if (attempt > 1) {
+            Allure.label("attempt", String.valueOf(attempt));
+            logger.info("🔁 Running '{}' as retry attempt {}", scenario.getName(), attempt);
+        }
+
+        if (EnvironmentManager.isScoped()) {
+            labelCombination();
+        }
+
+        if (scenario.getSourceTagNames().contains("@nobrowser")) {
+            disableDriver("Scenario '" + scenario.getName() + "' is tagged @nobrowser");
+        } else {
+            // Skip before paying for a browser launch if a site this feature uses is known to be down
+            HostCircuitBreaker.beforeScenario(scenario.getUri().toString(), EnvironmentManager.get("base.url", ""));
+            MDC.put("browser", EnvironmentManager.get("browser", "chrome"));
+            if (LOAD_MODE) {
+                // Launch now so the browser start is timed in the hook rather than in the first step
+                startDriver();
+            } else {
+                prepareDriver(this::enableBrowserLogging);
+            }
+        }
+
+        // Budget from @timeout:<n>s or scenario.timeout.seconds; a hung scenario's session is reclaimed
+        ScenarioWatchdog.start(scenario.getName(), scenario.getSourceTagNames(), currentSession());
+    }
+
+    /**
+     * Labels the Allure result with the environment × browser combination set by {@code runners.matrix.MatrixRunner},
+     * and keeps a separate history per combination instead of merging them as retries of one test.
+     */
+    private void labelCombination() {
+        String env = EnvironmentManager.currentEnv();
+        String browser = EnvironmentManager.get("browser", "chrome");
+        String combination = env + "/" + browser;
+        Allure.getLifecycle().updateTestCase(result -> {
+            result.setName(result.getName() + " [" + combination + "]");
+            result.getParameters().add(new Parameter().setName("env").setValue(env));
+            result.getParameters().add(new Parameter().setName("browser").setValue(browser));
+            result.setHistoryId(result.getHistoryId() + ":" + combination);
+            result.setTestCaseId(result.getTestCaseId() + ":" + combination);
+        });
+    }
+
+    /**
+     * Enables CDP logging or the HAR proxy for a freshly launched browser.
+     *
+     * @param driver the real driver, just launched on its first use
+     */
+    private void enableBrowserLogging(WebDriver driver) {
+        String browserName = ((HasCapabilities) driver).getCapabilities().getBrowserName();
 
         if (browserName.equalsIgnoreCase("chrome") || browserName.equalsIgnoreCase("edge")) {
             BrowserLogUtils.enableCDPLogging(driver, sanitizedScenarioName);
+            ScreencastRecorder.start(driver);
         } else if (browserName.equalsIgnoreCase("firefox") || browserName.equalsIgnoreCase("safari")) {
             BrowserLogUtils.startProxy();
         }
@@ -64,8 +135,8 @@ public class Hooks {
     /**
      * Cucumber {@code @After} hook.
      * <p>
-     * Captures browser logs, screenshots (if scenario failed), and attaches them to the Allure report.
-     * Ends the WebDriver session and logs the scenario duration.
+     * Deletes the scenario's API fixtures, captures browser logs, screenshots and the screencast (if scenario
+     * failed), and attaches them to the Allure report. Ends the WebDriver session and logs the scenario duration.
      *
      * @param scenario the current Cucumber scenario
      */
@@ -74,66 +145,93 @@ public class Hooks {
         long duration = System.currentTimeMillis() - startTime;
         logger.info("🕒 Scenario '{}' finished in {} ms", sanitizedScenarioName, duration);
 
+        // Stop the watchdog first; it clears its interrupt so the cleanup below can run
+        String overrun = ScenarioWatchdog.finish();
+        RunProgress.scenarioFinished(scenario.isFailed() || overrun != null);
+
+        ApiFixtures.cleanup();
+
+        if (!isDriverStarted() || LOAD_MODE) {
+            // Discards an unused lazy handle without launching a browser; load mode captures nothing
+            quitDriver();
+            endScenarioLogging(scenario);
+            failIfOverrun(overrun);
+            return;
+        }
+
+        String budgetViolation = null;
         try {
-            if (getDriver() != null) {
-                RemoteWebDriver driver = (RemoteWebDriver) getDriver();
-                String browserName = driver.getCapabilities().getBrowserName();
+            try {
+                // The launched driver itself, so the framework's own teardown calls do not count as browser use
+                WebDriver driver = currentSession().get();
+                String browserName = ((HasCapabilities) driver).getCapabilities().getBrowserName();
 
-                if (scenario.isFailed()) {
+                // Checks @budget tags against the page metrics collected on the CDP session
+                budgetViolation = PagePerformance.finish(driver, scenario.getName(), scenario.getSourceTagNames());
+
+                // After an overrun the watchdog has quit the session and attached its own screenshot
+                if (scenario.isFailed() && overrun == null) {
                     captureScreenshot(driver, scenario.getName());
                 }
 
                 if (browserName.equalsIgnoreCase("firefox") || browserName.equalsIgnoreCase("safari")) {
                     BrowserLogUtils.saveProxyHar(sanitizedScenarioName);
                 }
-
-                // Attach logs if present
-                attachLogIfExists("console", sanitizedScenarioName + ".log", "Console Logs");
-                attachLogIfExists("network", sanitizedScenarioName + ".log", "Network Logs");
-                attachLogIfExists("network", sanitizedScenarioName + ".har", "HAR File");
+            } finally {
+                // Takes a last sample of the browser's process tree and attaches the scenario's peaks
+                ProcessMonitor.finish(scenario.getName());
+                // Encodes the buffered frames only for failed scenarios; always releases the ring buffer
+                ScreencastRecorder.finish(scenario.isFailed(), scenario.getName());
+                quitDriver();
+                // Flush after quitting so late CDP events are included
+                LogArchive.flush(sanitizedScenarioName);
             }
         } finally {
-            quitDriver();
+            // Always runs, so the next scenario on this worker starts with clean MDC keys and log buffer
+            attachLogIfExists("console", "Console Logs");
+            attachLogIfExists("network", "Network Logs");
+            attachLogIfExists("har", "HAR File");
+            endScenarioLogging(scenario);
+            // The overrun is the root cause of any teardown error that follows it
+            failIfOverrun(overrun);
+        }
+        if (budgetViolation != null) {
+            throw new RuntimeException(budgetViolation);
         }
     }
 
     /**
-     * Deletes old log files (if any) for the given scenario name to avoid mixing logs from past runs.
+     * Fails the scenario if it exceeded its time budget, even if its steps eventually completed.
      *
-     * @param scenarioName the sanitized scenario name
+     * @param overrun the watchdog's description of the overrun, or null if the scenario stayed within budget
      */
-    private void cleanOldLogs(String scenarioName) {
-        String[] types = {"console", "network"};
-        for (String type : types) {
-            deleteIfExists(Paths.get(LOG_DIR, type, scenarioName + ".log").toFile());
-            deleteIfExists(Paths.get(LOG_DIR, type, scenarioName + ".har").toFile());
+    private void failIfOverrun(String overrun) {
+        if (overrun != null) {
+            throw new RuntimeException(overrun);
         }
     }
 
     /**
-     * Deletes a file if it exists.
+     * Stops routing framework logs to the scenario, attaching them to the Allure report if it failed,
+     * and clears the scenario's MDC entries from the worker thread.
      *
-     * @param file the file to be deleted
+     * @param scenario the current Cucumber scenario
      */
-    private void deleteIfExists(File file) {
-        if (file.exists() && file.delete()) {
-            logger.debug("🧹 Deleted old log: {}", file.getAbsolutePath());
-        }
+    private void endScenarioLogging(Scenario scenario) {
+        ScenarioLogAppender.finish(sanitizedScenarioName, scenario.isFailed() && !LOAD_MODE);
+        MDC.remove(ScenarioLogAppender.MDC_KEY);
+        MDC.remove("worker");
+        MDC.remove("browser");
     }
 
     /**
-     * Attaches a log file to the Allure report if it exists.
+     * Attaches the scenario's archived log of the given type to the Allure report if it exists.
      *
-     * @param type     the type of log (e.g., "console", "network")
-     * @param filename the log file name
-     * @param label    the label to display in the Allure report
+     * @param type  the type of log (e.g., "console", "network", "har")
+     * @param label the label to display in the Allure report
      */
-    private void attachLogIfExists(String type, String filename, String label) {
-        String path = Paths.get(LOG_DIR, type, filename).toString();
-        File file = new File(path);
-        if (file.exists()) {
-            FileManager.attachFileToAllure(path, label);
-        } else {
+    private void attachLogIfExists(String type, String label) {
+        if (!LogArchive.attachToAllure(sanitizedScenarioName, type, label)) {
             logger.info("📁 No {} found for scenario: {}", label, sanitizedScenarioName);
         }
     }
@@ -0,0 +1,16 @@
+package steps;
+
+import driver.DriverFactory;
+import io.cucumber.java.en.Then;
+import utils.VisualComparator;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VisualSteps {
+
+    @Then("the page should match the visual baseline {string}")
+    public void thePageShouldMatchTheVisualBaseline(String name) {
+        VisualComparator.Result result = VisualComparator.check(DriverFactory.getDriver(), name);
+        assertTrue(result.matches(), "Visual check '" + name + "' failed: " + result.message());
+    }
+}
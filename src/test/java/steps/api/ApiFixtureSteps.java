@@ -0,0 +1,68 @@
+package steps.api;
+
+import fixtures.ApiClient;
+import fixtures.ApiFixtures;
+import fixtures.ApiFixtures.Fixture;
+import fixtures.ApiFixtures.FixtureRequest;
+import fixtures.StubApiServer;
+import io.cucumber.java.en.Given;
+import io.cucumber.java.en.Then;
+import io.cucumber.java.en.When;
+import utils.EnvironmentManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ApiFixtureSteps {
+
+    private static final String USERS = "/users";
+
+    private StubApiServer server;
+    private final List<Fixture> users = new ArrayList<>();
+
+    @Given("the stand-in API server is running")
+    public void theStandInApiServerIsRunning() {
+        server = StubApiServer.shared(Long.parseLong(EnvironmentManager.get("stub.api.latency.ms", "50")));
+        // Points this scenario's fixtures at the stand-in instead of the environment's api.url, until cleanup
+        ApiClient.useBaseUri(server.baseUrl());
+    }
+
+    @When("a user fixture {string} is created")
+    public void aUserFixtureIsCreated(String name) {
+        users.add(ApiFixtures.create(USERS, Map.of("name", name)));
+    }
+
+    @When("{int} user fixtures are created in parallel")
+    public void userFixturesAreCreatedInParallel(int count) {
+        List<FixtureRequest> requests = IntStream.rangeClosed(1, count)
+                .mapToObj(i -> new FixtureRequest(USERS, Map.of("name", "user-" + i)))
+                .toList();
+        users.addAll(ApiFixtures.createAll(requests));
+    }
+
+    @When("the API fixtures are cleaned up")
+    public void theApiFixturesAreCleanedUp() {
+        assertEquals(users.size(), ApiFixtures.cleanup(), "Not all fixtures were deleted!");
+    }
+
+    @Then("the stand-in API server should contain the created users")
+    public void theStandInApiServerShouldContainTheCreatedUsers() {
+        assertEquals(users.size(), ApiFixtures.pending(), "Fixtures were not registered for cleanup!");
+        for (Fixture user : users) {
+            assertTrue(server.exists("users", user.id()), "User " + user.id() + " was not created!");
+        }
+    }
+
+    @Then("the created users should no longer exist")
+    public void theCreatedUsersShouldNoLongerExist() {
+        for (Fixture user : users) {
+            assertFalse(server.exists("users", user.id()), "User " + user.id() + " still exists!");
+        }
+    }
+}
@@ -1,17 +1,22 @@
 package steps.example;
 
 import driver.DriverFactory;
+import fixtures.StubSiteServer;
 import io.cucumber.java.en.And;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
 import org.slf4j.Logger;
 import pages.example.HerokuLoginPage;
+import utils.StorageStateCache;
 
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class HerokuLoginSteps {
 
+    private static final String VALID_USERNAME = "tomsmith";
+    private static final String VALID_PASSWORD = "SuperSecretPassword!";
+
     private final HerokuLoginPage herokuLoginPage;
 
     public HerokuLoginSteps() {
@@ -23,10 +28,15 @@ public class HerokuLoginSteps {
         herokuLoginPage.userIsOnTheLoginPage();
     }
 
+    @Given("the user is on the stand-in login page")
+    public void theUserIsOnTheStandInLoginPage() {
+        new HerokuLoginPage(DriverFactory.getDriver(), StubSiteServer.shared().baseUrl()).userIsOnTheLoginPage();
+    }
+
     @When("the user enters correct username and password")
     public void theUserEntersCorrectUsernameAndPassword() {
-        herokuLoginPage.enterUsername("tomsmith");
-        herokuLoginPage.enterPassword("SuperSecretPassword!");
+        herokuLoginPage.enterUsername(VALID_USERNAME);
+        herokuLoginPage.enterPassword(VALID_PASSWORD);
     }
 
     @And("clicks on the login button")
@@ -39,6 +49,31 @@ public class HerokuLoginSteps {
         assertTrue(herokuLoginPage.isSecureAreaVisible(), "Secure area is not visible!");
     }
 
+    @Given("the user is logged in with valid credentials")
+    public void theUserIsLoggedInWithValidCredentials() {
+        if (StorageStateCache.restore(DriverFactory.getDriver(), VALID_USERNAME, herokuLoginPage.secureAreaUrl())
+                && herokuLoginPage.isOnSecureArea()) {
+            return;
+        }
+
+        StorageStateCache.invalidate(VALID_USERNAME);
+        herokuLoginPage.userIsOnTheLoginPage();
+        theUserEntersCorrectUsernameAndPassword();
+        herokuLoginPage.clickLoginButton();
+        assertTrue(herokuLoginPage.isSecureAreaVisible(), "Secure area is not visible!");
+        StorageStateCache.save(DriverFactory.getDriver(), VALID_USERNAME);
+    }
+
+    @When("the user clicks the logout button")
+    public void theUserClicksTheLogoutButton() {
+        herokuLoginPage.clickLogoutButton();
+    }
+
+    @Then("the user should see the logout message")
+    public void theUserShouldSeeTheLogoutMessage() {
+        assertTrue(herokuLoginPage.isLogoutMessageVisible(), "Logout message is not visible!");
+    }
+
     @When("the user enters incorrect username and password")
     public void theUserEntersIncorrectUsernameAndPassword() {
         herokuLoginPage.enterUsername("husensei");
@@ -0,0 +1,328 @@
+package utils;
+
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Gives Chrome and Edge sessions a warm HTTP disk cache and pre-resolved host names.
+ * <p>
+ * With {@code browser.cache.enabled=true}, every session starts from a private copy of a shared cache template
+ * ({@code browser.cache.template.dir}), passed via {@code --disk-cache-dir} and capped at
+ * {@code browser.cache.size.mb}. Sessions never write to the template: when it is missing or older than
+ * {@code browser.cache.template.max.age.hours}, the cache of the next session to quit becomes the new template;
+ * otherwise session caches are deleted on quit. Template reads and writes are locked across Gradle forks.
+ * <p>
+ * The hosts of {@code base.url} and {@code browser.cache.warm.hosts} are resolved once per
+ * {@code browser.cache.dns.ttl.seconds} in the JVM and pinned with {@code --host-resolver-rules}, so new sessions
+ * skip their DNS lookups. Cache hits per page and the load time compared with previous runs without the cache are
+ * reported by {@link PagePerformance}.
+ */
+public class BrowserCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(BrowserCache.class);
+
+    private static final boolean ENABLED = Boolean.parseBoolean(EnvironmentManager.get("browser.cache.enabled", "false"));
+    private static final Path TEMPLATE = Paths.get(EnvironmentManager.get("browser.cache.template.dir", "build/browser-cache/template"));
+    private static final Path SESSIONS = Paths.get(EnvironmentManager.get("browser.cache.sessions.dir", "build/browser-cache/sessions"));
+    private static final long SIZE_BYTES = Long.parseLong(EnvironmentManager.get("browser.cache.size.mb", "256")) * 1024 * 1024;
+    private static final Duration TEMPLATE_MAX_AGE = Duration.ofHours(Long.parseLong(EnvironmentManager.get("browser.cache.template.max.age.hours", "24")));
+    private static final Duration DNS_TTL = Duration.ofSeconds(Long.parseLong(EnvironmentManager.get("browser.cache.dns.ttl.seconds", "300")));
+    private static final Path LOCK_FILE = TEMPLATE.resolveSibling(TEMPLATE.getFileName() + ".lock");
+
+    /** File locks are held per JVM, so threads of this fork coordinate here first (see {@link #withTemplateLock}). */
+    private static final ReentrantReadWriteLock templateLock = new ReentrantReadWriteLock();
+    /** The shared file lock taken by the first reader of this fork and released by the last one. */
+    private static FileChannel sharedChannel;
+    private static FileLock sharedFileLock;
+    private static int sharedHolders;
+    private static final ThreadLocal<Path> sessionDirs = new ThreadLocal<>();
+    private static final Set<Path> openDirs = ConcurrentHashMap.newKeySet();
+    private static final Map<String, Resolved> resolvedHosts = new ConcurrentHashMap<>();
+
+    /**
+     * A host name resolved by the JVM, pinned for the browser until it expires; the address is null if it did not resolve.
+     */
+    private record Resolved(String address, Instant expires) {
+    }
+
+    static {
+        if (ENABLED) {
+            // Host browsers of the context pool keep their cache until exit
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> openDirs.forEach(BrowserCache::deleteQuietly),
+                    "browser-cache-cleanup"));
+        }
+    }
+
+    /**
+     * Tells whether sessions of the given browser get the shared cache.
+     *
+     * @param browserName the browser name (e.g., "chrome")
+     * @return true for Chrome and Edge when {@code browser.cache.enabled=true}
+     */
+    public static boolean isEnabled(String browserName) {
+        return ENABLED && (browserName.equalsIgnoreCase("chrome") || browserName.equalsIgnoreCase("edge"));
+    }
+
+    /**
+     * Adds the cache directory, cache size and host resolver rules for a new session to the launch options.
+     * The session's cache directory belongs to the current thread until {@link #release()}.
+     *
+     * @param options the Chrome or Edge options being built
+     */
+    public static void apply(ChromiumOptions<?> options) {
+        // A local cache directory means nothing to a browser on Selenium Grid
+        if (!ENABLED || Boolean.parseBoolean(EnvironmentManager.get("remote", "false"))) {
+            return;
+        }
+        try {
+            Path dir = newSessionDir();
+            options.addArguments("--disk-cache-dir=" + dir.toAbsolutePath(), "--disk-cache-size=" + SIZE_BYTES);
+            sessionDirs.set(dir);
+            openDirs.add(dir);
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("⚠️ Could not prepare browser cache, starting cold: {}", e.getMessage());
+        }
+        String rules = hostResolverRules();
+        if (!rules.isEmpty()) {
+            options.addArguments("--host-resolver-rules=" + rules);
+        }
+    }
+
+    /**
+     * Called after the current thread's browser has quit: promotes its cache to the template if the template is
+     * missing or stale, and deletes it otherwise.
+     */
+    public static void release() {
+        Path dir = sessionDirs.get();
+        if (dir == null) {
+            return;
+        }
+        sessionDirs.remove();
+        openDirs.remove(dir);
+        try {
+            promoteIfStale(dir);
+        } catch (IOException | UncheckedIOException e) {
+            logger.warn("⚠️ Could not update browser cache template: {}", e.getMessage());
+        } finally {
+            deleteQuietly(dir);
+        }
+    }
+
+    /**
+     * Leaves the current thread's cache directory to a browser that outlives the scenario (e.g., a pooled host);
+     * it is deleted at JVM exit.
+     */
+    public static void detach() {
+        sessionDirs.remove();
+    }
+
+    /**
+     * Creates a session cache directory as a copy of the template, if there is one.
+     */
+    private static Path newSessionDir() throws IOException {
+        Files.createDirectories(SESSIONS);
+        Path dir = SESSIONS.resolve(UUID.randomUUID().toString());
+        withTemplateLock(true, () -> {
+            if (Files.isDirectory(TEMPLATE)) {
+                long start = System.nanoTime();
+                long bytes = copy(TEMPLATE, dir);
+                logger.debug("🗄️ Browser cache template copied ({} KB) in {} ms", bytes / 1024,
+                        (System.nanoTime() - start) / 1_000_000);
+            } else {
+                Files.createDirectories(dir);
+            }
+        });
+        return dir;
+    }
+
+    private static void promoteIfStale(Path dir) throws IOException {
+        withTemplateLock(false, () -> {
+            boolean stale = !Files.isDirectory(TEMPLATE) || Files.getLastModifiedTime(TEMPLATE).toInstant()
+                    .isBefore(Instant.now().minus(TEMPLATE_MAX_AGE));
+            long size = size(dir);
+            if (!stale || size == 0 || size > SIZE_BYTES * 11 / 10) {
+                return;
+            }
+            Path staging = TEMPLATE.resolveSibling(TEMPLATE.getFileName() + ".new");
+            deleteQuietly(staging);
+            copy(dir, staging);
+            deleteQuietly(TEMPLATE);
+            Files.move(staging, TEMPLATE, StandardCopyOption.ATOMIC_MOVE);
+            Files.setLastModifiedTime(TEMPLATE, FileTime.from(Instant.now()));
+            logger.info("🗄️ Browser cache template refreshed ({} KB)", size / 1024);
+        });
+    }
+
+    /**
+     * Returns the {@code --host-resolver-rules} value pinning the warmed hosts to their current addresses.
+     */
+    private static String hostResolverRules() {
+        List<String> rules = new ArrayList<>();
+        for (String host : warmHosts()) {
+            Resolved resolved = resolvedHosts.compute(host, (name, previous) -> {
+                if (previous != null && previous.expires().isAfter(Instant.now())) {
+                    return previous;
+                }
+                try {
+                    return new Resolved(InetAddress.getByName(name).getHostAddress(), Instant.now().plus(DNS_TTL));
+                } catch (UnknownHostException e) {
+                    logger.debug("⚠️ Could not resolve {} for warming: {}", name, e.getMessage());
+                    // Not retried until the TTL passes, so an unresolvable host does not slow every launch
+                    return new Resolved(null, Instant.now().plus(DNS_TTL));
+                }
+            });
+            if (resolved.address() != null) {
+                rules.add("MAP " + host + " " + resolved.address());
+            }
+        }
+        return String.join(",", rules);
+    }
+
+    private static Set<String> warmHosts() {
+        Set<String> hosts = new LinkedHashSet<>();
+        List<String> entries = new ArrayList<>(List.of(EnvironmentManager.get("browser.cache.warm.hosts", "").split(",")));
+        entries.add(EnvironmentManager.get("base.url", ""));
+        for (String entry : entries) {
+            String value = entry.trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            String host = value.contains("://") ? URI.create(value).getHost() : value;
+            // Literal addresses and local names need no warming
+            if (host != null && !host.equalsIgnoreCase("localhost") && !host.matches("[0-9.:\\[\\]]+")) {
+                hosts.add(host);
+            }
+        }
+        return hosts;
+    }
+
+    private interface IoAction {
+        void run() throws IOException;
+    }
+
+    /**
+     * Runs the action while holding the template lock file, shared with other forks: shared for copying the
+     * template, so sessions of all threads and forks copy it concurrently, and exclusive for replacing it.
+     * <p>
+     * A second lock on the file from another thread of the same JVM would throw an
+     * {@link java.nio.channels.OverlappingFileLockException}, even for shared locks, so threads coordinate on
+     * an in-memory read/write lock first and the readers of this fork share a single file lock.
+     */
+    private static void withTemplateLock(boolean shared, IoAction action) throws IOException {
+        if (shared) {
+            templateLock.readLock().lock();
+            try {
+                acquireSharedFileLock();
+                try {
+                    action.run();
+                } finally {
+                    releaseSharedFileLock();
+                }
+            } finally {
+                templateLock.readLock().unlock();
+            }
+            return;
+        }
+        templateLock.writeLock().lock();
+        try {
+            Files.createDirectories(LOCK_FILE.getParent());
+            try (FileChannel channel = FileChannel.open(LOCK_FILE, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                action.run();
+            }
+        } finally {
+            templateLock.writeLock().unlock();
+        }
+    }
+
+    private static synchronized void acquireSharedFileLock() throws IOException {
+        if (sharedHolders == 0) {
+            Files.createDirectories(LOCK_FILE.getParent());
+            FileChannel channel = FileChannel.open(LOCK_FILE, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            try {
+                sharedFileLock = channel.lock(0, Long.MAX_VALUE, true);
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+            sharedChannel = channel;
+        }
+        sharedHolders++;
+    }
+
+    private static synchronized void releaseSharedFileLock() throws IOException {
+        if (--sharedHolders > 0) {
+            return;
+        }
+        try (FileChannel channel = sharedChannel; FileLock lock = sharedFileLock) {
+            sharedChannel = null;
+            sharedFileLock = null;
+        }
+    }
+
+    private static long copy(Path source, Path target) throws IOException {
+        long[] bytes = {0};
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.copy(file, target.resolve(source.relativize(file)), StandardCopyOption.REPLACE_EXISTING);
+                bytes[0] += attrs.size();
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return bytes[0];
+    }
+
+    private static long size(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+
+    private static void deleteQuietly(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted((a, b) -> b.getNameCount() - a.getNameCount()).forEach(path -> path.toFile().delete());
+        } catch (IOException | UncheckedIOException e) {
+            logger.debug("⚠️ Could not delete {}: {}", dir, e.getMessage());
+        }
+    }
+}
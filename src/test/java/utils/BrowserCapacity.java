@@ -0,0 +1,166 @@
+package utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sizes and enforces how many browsers may run at once in this JVM, based on memory rather than CPU cores.
+ * <p>
+ * Each local browser (especially headless Chrome) typically consumes several hundred megabytes, so the
+ * practical limit on a CI agent is memory. The capacity is derived from:
+ * <ul>
+ *     <li>{@code browser.memory.mb} – expected footprint of one browser process tree</li>
+ *     <li>{@code memory.reserve.mb} – memory kept free for the JVM, Gradle and the OS</li>
+ *     <li>{@code test.forks} – number of Gradle test forks sharing the host (set by the build)</li>
+ *     <li>{@code parallel.max} – optional hard cap (0 = none)</li>
+ *     <li>{@code remote} / {@code grid.max.sessions} – on Selenium Grid, browsers do not use local memory</li>
+ * </ul>
+ * <p>
+ * {@link #computeParallelism()} is used once by the parallel execution strategy to size the worker pool,
+ * while {@link #acquire()} re-checks free memory before every browser launch so a host under memory pressure
+ * throttles new scenarios instead of running out of memory.
+ */
+public class BrowserCapacity {
+
+    private static final Logger logger = LoggerFactory.getLogger(BrowserCapacity.class);
+
+    private static final long BROWSER_MEMORY_MB = parseLong("browser.memory.mb", 600);
+    private static final long RESERVE_MB = parseLong("memory.reserve.mb", 1024);
+    private static final long WAIT_TIMEOUT_SECONDS = parseLong("capacity.wait.timeout.seconds", 300);
+    private static final long RECENT_LAUNCH_WINDOW_MS = 10_000;
+
+    private static final Object lock = new Object();
+    private static final Deque<Long> recentLaunches = new ArrayDeque<>();
+    private static final ThreadLocal<Boolean> holding = ThreadLocal.withInitial(() -> false);
+    private static int activeBrowsers = 0;
+
+    /**
+     * Computes the number of scenarios that may run in parallel in this fork and logs the reasoning.
+     *
+     * @return the parallelism to use, always at least 1
+     */
+    public static int computeParallelism() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int forks = (int) Math.max(1, parseLong("test.forks", 1));
+        long parallelMax = parseLong("parallel.max", 0);
+        boolean remote = isRemote();
+
+        int parallelism;
+        if (remote) {
+            long gridSessions = parseLong("grid.max.sessions", cores);
+            parallelism = (int) Math.max(1, gridSessions / forks);
+            logger.info("🧮 Parallelism {} = grid.max.sessions {} / forks {} (remote execution, local memory not limiting)",
+                    parallelism, gridSessions, forks);
+        } else {
+            long available = SystemResources.availableMemoryMb();
+            long usable = Math.max(0, available - RESERVE_MB);
+            long byMemory = Math.max(1, usable / forks / BROWSER_MEMORY_MB);
+            int byCpu = Math.max(1, cores / forks);
+            parallelism = (int) Math.min(byMemory, byCpu);
+            logger.info("🧮 Parallelism {} = min(memory {} , cpu {}) | available: {} MB, reserve: {} MB, "
+                            + "per browser: {} MB, forks: {}, cores: {}",
+                    parallelism, byMemory, byCpu, available, RESERVE_MB, BROWSER_MEMORY_MB, forks, cores);
+        }
+
+        if (parallelMax > 0 && parallelism > parallelMax) {
+            logger.info("🧮 Parallelism capped by parallel.max: {} -> {}", parallelism, parallelMax);
+            parallelism = (int) parallelMax;
+        }
+        return parallelism;
+    }
+
+    /**
+     * Blocks until there is enough free memory for one more browser, then reserves a slot for the current thread.
+     * <p>
+     * At least one browser is always allowed so the run makes progress. If capacity does not become available
+     * within {@code capacity.wait.timeout.seconds}, the launch proceeds with a warning rather than stalling CI.
+     */
+    public static void acquire() {
+        if (holding.get()) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + TimeUnit.SECONDS.toNanos(WAIT_TIMEOUT_SECONDS);
+        boolean logged = false;
+
+        synchronized (lock) {
+            while (!hasCapacity()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    logger.warn("⚠️ No memory headroom after {} s, launching browser anyway (active: {})",
+                            WAIT_TIMEOUT_SECONDS, activeBrowsers);
+                    break;
+                }
+                if (!logged) {
+                    logger.info("⏳ Waiting for memory headroom | available: {} MB, active browsers: {}",
+                            SystemResources.availableMemoryMb(), activeBrowsers);
+                    logged = true;
+                }
+                try {
+                    lock.wait(Math.min(1000, TimeUnit.NANOSECONDS.toMillis(remaining) + 1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while waiting for browser capacity", e);
+                }
+            }
+            activeBrowsers++;
+            recentLaunches.addLast(System.currentTimeMillis());
+            holding.set(true);
+        }
+
+        if (logged) {
+            logger.info("✅ Browser capacity granted after {} ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+    }
+
+    /**
+     * Releases the slot held by the current thread, if any.
+     */
+    public static void release() {
+        if (!holding.get()) {
+            return;
+        }
+        synchronized (lock) {
+            activeBrowsers = Math.max(0, activeBrowsers - 1);
+            holding.remove();
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Checks whether another browser fits in memory. Browsers launched in the last few seconds have not yet
+     * reached their full footprint, so their expected size is subtracted from the measured free memory.
+     * Must be called while holding {@link #lock}.
+     */
+    private static boolean hasCapacity() {
+        if (activeBrowsers == 0 || isRemote()) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        while (!recentLaunches.isEmpty() && now - recentLaunches.peekFirst() > RECENT_LAUNCH_WINDOW_MS) {
+            recentLaunches.removeFirst();
+        }
+        long pending = recentLaunches.size() * BROWSER_MEMORY_MB;
+        long headroom = SystemResources.availableMemoryMb() - RESERVE_MB - pending;
+        return headroom >= BROWSER_MEMORY_MB;
+    }
+
+    private static boolean isRemote() {
+        return Boolean.parseBoolean(EnvironmentManager.get("remote", "false"));
+    }
+
+    private static long parseLong(String key, long defaultValue) {
+        String value = EnvironmentManager.get(key, String.valueOf(defaultValue));
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("⚠️ Invalid {} '{}', falling back to {}", key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+}
@@ -6,15 +6,18 @@ import net.lightbody.bmp.core.har.Har;
 import org.openqa.selenium.devtools.DevTools;
 import org.openqa.selenium.devtools.HasDevTools;
 import org.openqa.selenium.devtools.v138.log.Log;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.devtools.v138.network.Network;
-import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.devtools.v138.network.model.ResourceType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
-import java.io.FileWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class for managing browser logs and network traffic capture.
@@ -22,7 +25,7 @@ import java.util.Optional;
  * Supports Chrome DevTools Protocol (CDP) for Chrome/Edge browsers and BrowserMob Proxy
  * for capturing HTTP Archive (HAR) files on browsers without CDP support (e.g., Firefox, Safari).
  * <p>
- * Provides methods to start logging, save logs to files, and sanitize scenario names for safe file storage.
+ * Provides methods to start logging and record logs per scenario in the run's {@link LogArchive}.
  */
 public class BrowserLogUtils {
 
@@ -33,13 +36,16 @@ public class BrowserLogUtils {
     /**
      * Enables Chrome DevTools Protocol (CDP) logging for console messages and network events.
      * <p>
-     * Starts a DevTools session on the given {@link RemoteWebDriver}, listens for console log entries,
-     * network requests, and responses, and writes them asynchronously to log files.
+     * Starts a DevTools session on the given {@link WebDriver}, listens for console log entries,
+     * network requests, and responses, and buffers them in the run's {@link LogArchive}.
+     * <p>
+     * Failed or server-error (5xx) document loads are also reported to {@link HostCircuitBreaker}, and page
+     * metrics are collected on the same session by {@link PagePerformance}.
      *
-     * @param driver       the RemoteWebDriver instance; must implement {@link HasDevTools}
-     * @param scenarioName the sanitized scenario name used for naming log files
+     * @param driver       the WebDriver instance; must implement {@link HasDevTools}
+     * @param scenarioName the scenario key the logs are archived under
      */
-    public static void enableCDPLogging(RemoteWebDriver driver, String scenarioName) {
+    public static void enableCDPLogging(WebDriver driver, String scenarioName) {
         if (driver instanceof HasDevTools) {
             try {
                 DevTools tools = ((HasDevTools) driver).getDevTools();
@@ -55,16 +61,38 @@ public class BrowserLogUtils {
                 ));
 
                 tools.addListener(Log.entryAdded(), logEntry ->
-                        saveToFile("console", scenarioName, logEntry.getText())
+                        archive("console", scenarioName, logEntry.getText())
                 );
 
-                tools.addListener(Network.requestWillBeSent(), request ->
-                        saveToFile("network", scenarioName, "[REQUEST] " + request.getRequest().getUrl())
-                );
+                Map<String, String> documentRequests = new ConcurrentHashMap<>();
 
-                tools.addListener(Network.responseReceived(), response ->
-                        saveToFile("network", scenarioName, "[RESPONSE] " + response.getResponse().getUrl())
-                );
+                tools.addListener(Network.requestWillBeSent(), request -> {
+                    if (request.getType().orElse(null) == ResourceType.DOCUMENT) {
+                        documentRequests.put(request.getRequestId().toString(), request.getRequest().getUrl());
+                    }
+                    archive("network", scenarioName, "[REQUEST] " + request.getRequest().getUrl());
+                });
+
+                tools.addListener(Network.responseReceived(), response -> {
+                    if (response.getType() == ResourceType.DOCUMENT) {
+                        documentRequests.remove(response.getRequestId().toString());
+                        if (response.getResponse().getStatus() >= 500) {
+                            HostCircuitBreaker.recordFailure(response.getResponse().getUrl(),
+                                    "HTTP " + response.getResponse().getStatus());
+                        }
+                    }
+                    archive("network", scenarioName, "[RESPONSE] " + response.getResponse().getUrl());
+                });
+
+                tools.addListener(Network.loadingFailed(), failure -> {
+                    String url = documentRequests.remove(failure.getRequestId().toString());
+                    if (url != null && !failure.getCanceled().orElse(false)) {
+                        HostCircuitBreaker.recordFailure(url, failure.getErrorText());
+                    }
+                    archive("network", scenarioName, "[FAILED] " + (url != null ? url + " " : "") + failure.getErrorText());
+                });
+
+                PagePerformance.enable(tools);
 
                 logger.info("✅ CDP logging enabled for scenario: {}", scenarioName);
             } catch (Exception e) {
@@ -94,20 +122,20 @@ public class BrowserLogUtils {
     }
 
     /**
-     * Saves the HAR (HTTP Archive) file captured by BrowserMob Proxy for the current scenario
-     * and stops the proxy server.
+     * Stores the HAR (HTTP Archive) captured by BrowserMob Proxy for the current scenario in the
+     * run's {@link LogArchive} and stops the proxy server.
      *
-     * @param scenarioName the sanitized scenario name to use for the HAR file name
+     * @param scenarioName the scenario key
      */
     public static void saveProxyHar(String scenarioName) {
         BrowserMobProxy proxy = proxyThread.get();
         if (proxy != null) {
             try {
                 Har har = proxy.getHar();
-                File file = new File("target/logs/network/" + sanitize(scenarioName) + ".har");
-                file.getParentFile().mkdirs();
-                har.writeTo(file);
-                logger.info("📄 HAR file saved for scenario: {}", scenarioName);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                har.writeTo(out);
+                LogArchive.append(scenarioName, "har", out.toString(StandardCharsets.UTF_8));
+                logger.info("📄 HAR captured for scenario: {}", scenarioName);
             } catch (IOException e) {
                 logger.error("❌ Failed to save HAR file: {}", e.getMessage(), e);
             } finally {
@@ -118,36 +146,13 @@ public class BrowserLogUtils {
     }
 
     /**
-     * Writes a single log line to a text file corresponding to the log type and scenario.
-     * <p>
-     * Ensures the directory exists and appends to the log file in a thread-safe manner.
+     * Buffers a single log line for the scenario in the run's {@link LogArchive}.
      *
      * @param type         the log type ("console" or "network")
-     * @param scenarioName the sanitized scenario name used for file naming
-     * @param content      the text content to write to the log file
-     */
-    private static synchronized void saveToFile(String type, String scenarioName, String content) {
-        try {
-            File dir = new File("target/logs/" + type);
-            if (!dir.exists()) dir.mkdirs();
-
-            File logFile = new File(dir, sanitize(scenarioName) + ".log");
-            try (FileWriter writer = new FileWriter(logFile, true)) {
-                writer.write(content + "\n");
-            }
-        } catch (IOException e) {
-            logger.error("❌ Failed to write log to file: {}", e.getMessage(), e);
-        }
-    }
-
-    /**
-     * Sanitizes a string by replacing all characters not suitable for filenames
-     * (anything other than letters, digits, dash, underscore, or dot) with an underscore.
-     *
-     * @param name the raw scenario name or string to sanitize
-     * @return a sanitized string safe for file naming
+     * @param scenarioName the scenario key
+     * @param content      the text content to record
      */
-    private static String sanitize(String name) {
-        return name.replaceAll("[^a-zA-Z0-9-_\\.]", "_");
+    private static void archive(String type, String scenarioName, String content) {
+        LogArchive.append(scenarioName, type, content);
     }
 }
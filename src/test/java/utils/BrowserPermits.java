@@ -0,0 +1,198 @@
+package utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cross-process semaphore limiting the number of local browsers running at once across all Gradle test forks.
+ * <p>
+ * The limit is configured with {@code browser.max.total} (0 disables the limiter). Permits are represented by
+ * {@code browser.max.total} lock files in {@code browser.permit.dir}; a fork holds a permit while it holds an
+ * exclusive {@link FileLock} on one of them. The operating system releases the locks if a fork dies, so permits
+ * cannot leak across builds.
+ * <p>
+ * Each fork reports how long its threads waited for permits when the JVM exits.
+ */
+public class BrowserPermits {
+
+    private static final Logger logger = LoggerFactory.getLogger(BrowserPermits.class);
+
+    private static final int MAX_TOTAL = parseInt("browser.max.total", 0);
+    private static final Path PERMIT_DIR = Paths.get(EnvironmentManager.get("browser.permit.dir", "build/browser-permits"));
+    private static final long WAIT_TIMEOUT_SECONDS = parseInt("browser.permit.timeout.seconds", 600);
+    private static final long POLL_INTERVAL_MS = 200;
+
+    private static final ThreadLocal<Permit> held = new ThreadLocal<>();
+    private static final Set<Integer> slotsInUse = new HashSet<>();
+
+    private static final LongAdder permitsGranted = new LongAdder();
+    private static final LongAdder totalWaitMs = new LongAdder();
+    private static final AtomicLong maxWaitMs = new AtomicLong();
+
+    static {
+        if (isEnabled()) {
+            Runtime.getRuntime().addShutdownHook(new Thread(BrowserPermits::logSummary, "browser-permits-summary"));
+        }
+    }
+
+    /**
+     * Returns whether the cross-fork limit is active.
+     *
+     * @return true if {@code browser.max.total} is greater than zero
+     */
+    public static boolean isEnabled() {
+        return MAX_TOTAL > 0;
+    }
+
+    /**
+     * Blocks until a build-wide browser permit is available and assigns it to the current thread.
+     * Does nothing if the limiter is disabled or the thread already holds a permit.
+     *
+     * @throws RuntimeException if no permit becomes available within {@code browser.permit.timeout.seconds}
+     */
+    public static void acquire() {
+        if (!isEnabled() || held.get() != null) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(WAIT_TIMEOUT_SECONDS);
+
+        while (true) {
+            for (int slot = 0; slot < MAX_TOTAL; slot++) {
+                Permit permit = tryLock(slot);
+                if (permit != null) {
+                    held.set(permit);
+                    recordWait(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), slot);
+                    return;
+                }
+            }
+
+            if (System.nanoTime() > deadline) {
+                String message = "❌ No browser permit available after " + WAIT_TIMEOUT_SECONDS + " s (browser.max.total=" + MAX_TOTAL + ")";
+                logger.error(message);
+                throw new RuntimeException(message);
+            }
+
+            try {
+                Thread.sleep(POLL_INTERVAL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for a browser permit", e);
+            }
+        }
+    }
+
+    /**
+     * Releases the permit held by the current thread, if any.
+     */
+    public static void release() {
+        Permit permit = held.get();
+        if (permit == null) {
+            return;
+        }
+        held.remove();
+        try {
+            permit.lock().release();
+            permit.channel().close();
+        } catch (IOException e) {
+            logger.warn("⚠️ Failed to release browser permit {}: {}", permit.slot(), e.getMessage());
+        } finally {
+            synchronized (slotsInUse) {
+                slotsInUse.remove(permit.slot());
+            }
+        }
+    }
+
+    /**
+     * Attempts to lock the given slot file without blocking.
+     * <p>
+     * File locks are held on behalf of the whole JVM, so slots taken by other threads of this fork are tracked
+     * in memory to avoid an {@link java.nio.channels.OverlappingFileLockException}.
+     */
+    private static Permit tryLock(int slot) {
+        synchronized (slotsInUse) {
+            if (!slotsInUse.add(slot)) {
+                return null;
+            }
+        }
+
+        FileChannel channel = null;
+        try {
+            Files.createDirectories(PERMIT_DIR);
+            channel = FileChannel.open(PERMIT_DIR.resolve("slot-" + slot + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            FileLock lock = channel.tryLock();
+            if (lock != null) {
+                return new Permit(slot, channel, lock);
+            }
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("⚠️ Could not lock browser permit {}: {}", slot, e.getMessage());
+            closeQuietly(channel);
+        }
+
+        synchronized (slotsInUse) {
+            slotsInUse.remove(slot);
+        }
+        return null;
+    }
+
+    private static void recordWait(long waitedMs, int slot) {
+        permitsGranted.increment();
+        totalWaitMs.add(waitedMs);
+        maxWaitMs.accumulateAndGet(waitedMs, Math::max);
+        if (waitedMs > POLL_INTERVAL_MS) {
+            logger.info("🎫 Browser permit {} acquired after waiting {} ms", slot, waitedMs);
+        } else {
+            logger.debug("🎫 Browser permit {} acquired", slot);
+        }
+    }
+
+    private static void logSummary() {
+        long granted = permitsGranted.sum();
+        long total = totalWaitMs.sum();
+        logger.info("🎫 Browser permit summary for fork {} | permits: {}, total wait: {} ms, avg wait: {} ms, max wait: {} ms",
+                System.getProperty("org.gradle.test.worker", "main"), granted, total,
+                granted == 0 ? 0 : total / granted, maxWaitMs.get());
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // nothing left to clean up
+            }
+        }
+    }
+
+    private static int parseInt(String key, int defaultValue) {
+        String value = EnvironmentManager.get(key, String.valueOf(defaultValue));
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("⚠️ Invalid {} '{}', falling back to {}", key, value, defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * A held permit: the slot index and the lock keeping it.
+     */
+    private record Permit(int slot, FileChannel channel, FileLock lock) {
+    }
+}
@@ -0,0 +1,296 @@
+package utils;
+
+import io.cucumber.cucumberexpressions.Expression;
+import io.cucumber.cucumberexpressions.ExpressionFactory;
+import io.cucumber.cucumberexpressions.ParameterTypeRegistry;
+import io.cucumber.gherkin.GherkinParser;
+import io.cucumber.java.StepDefinitionAnnotation;
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.messages.types.Pickle;
+import io.cucumber.messages.types.PickleStep;
+import io.cucumber.messages.types.PickleTag;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Build-time index of Cucumber glue (step-definition patterns and hooks) and parsed feature pickles.
+ * <p>
+ * Generated on demand by the {@code cucumberIndex} Gradle task after the test classes are compiled:
+ * <pre>
+ * ./gradlew cucumberIndex test
+ * </pre>
+ * The index records, per glue class, its step patterns and hooks; per feature file, its pickles with tags; steps
+ * that match no pattern; and a fingerprint of the glue class files and feature files. Undefined steps are listed;
+ * they fail the task only with {@code -Dcucumber.index.fail.undefined=true}.
+ * <p>
+ * The index does not replace Cucumber's discovery: runners still scan the glue packages and parse the features.
+ * At test startup {@code runners.CucumberIndexListener} loads it if present, compares the fingerprint to detect a
+ * stale index, preloads the listed glue classes in parallel ahead of that scan, and reports the time to the first
+ * scenario either way, so runs with and without the index can be compared.
+ */
+public class CucumberIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CucumberIndex.class);
+
+    private static final Set<String> HOOK_ANNOTATIONS = Set.of("Before", "After", "BeforeStep", "AfterStep", "BeforeAll", "AfterAll");
+
+    /**
+     * Generates the index. Usage: {@code CucumberIndex <output file>}; the glue and features are discovered in the
+     * directories on the classpath.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: CucumberIndex <output file>");
+            System.exit(1);
+        }
+        long start = System.nanoTime();
+        JSONObject index = generate(classpathDirectories());
+        Path output = Paths.get(args[0]);
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Files.writeString(output, index.toString(2), StandardCharsets.UTF_8);
+
+        System.out.printf("Indexed %d glue classes, %d feature files, %d pickles in %d ms -> %s%n",
+                index.getJSONArray("glue").length(), index.getJSONArray("features").length(), countPickles(index),
+                (System.nanoTime() - start) / 1_000_000, output);
+        JSONArray undefined = index.getJSONArray("undefinedSteps");
+        for (int i = 0; i < undefined.length(); i++) {
+            System.out.println("Undefined step: " + undefined.getString(i));
+        }
+        if (!undefined.isEmpty() && Boolean.parseBoolean(System.getProperty("cucumber.index.fail.undefined", "false"))) {
+            System.err.printf("%d undefined step(s) with -Dcucumber.index.fail.undefined=true%n", undefined.length());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Loads an index file.
+     *
+     * @param file the index file
+     * @return the index, or empty if it does not exist or cannot be read
+     */
+    public static Optional<JSONObject> load(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new JSONObject(Files.readString(file, StandardCharsets.UTF_8)));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("⚠️ Unreadable Cucumber index {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns whether the glue class files and feature files on the classpath still match the index.
+     *
+     * @param index a loaded index
+     * @return true if nothing relevant changed since the index was generated
+     */
+    public static boolean isFresh(JSONObject index) {
+        return index.optString("fingerprint").equals(fingerprint(classpathDirectories(), gluePackages(index)));
+    }
+
+    /**
+     * Returns the number of pickles recorded in an index.
+     *
+     * @param index a loaded index
+     * @return the pickle count
+     */
+    public static int countPickles(JSONObject index) {
+        JSONArray features = index.getJSONArray("features");
+        int count = 0;
+        for (int i = 0; i < features.length(); i++) {
+            count += features.getJSONObject(i).getJSONArray("pickles").length();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the glue class names recorded in an index.
+     *
+     * @param index a loaded index
+     * @return the fully qualified glue class names
+     */
+    public static List<String> glueClasses(JSONObject index) {
+        JSONArray glue = index.getJSONArray("glue");
+        List<String> classes = new ArrayList<>();
+        for (int i = 0; i < glue.length(); i++) {
+            classes.add(glue.getJSONObject(i).getString("class"));
+        }
+        return classes;
+    }
+
+    private static JSONObject generate(List<Path> roots) throws IOException {
+        JSONArray glue = new JSONArray();
+        List<Expression> expressions = new ArrayList<>();
+        ExpressionFactory expressionFactory = new ExpressionFactory(new ParameterTypeRegistry(Locale.ENGLISH));
+
+        for (String className : classNames(roots)) {
+            Class<?> type;
+            try {
+                type = Class.forName(className, false, CucumberIndex.class.getClassLoader());
+            } catch (ClassNotFoundException | LinkageError e) {
+                continue;
+            }
+            JSONArray steps = new JSONArray();
+            JSONArray hooks = new JSONArray();
+            for (Method method : type.getDeclaredMethods()) {
+                for (Annotation annotation : method.getAnnotations()) {
+                    Class<? extends Annotation> annotationType = annotation.annotationType();
+                    if (annotationType.isAnnotationPresent(StepDefinitionAnnotation.class)) {
+                        String pattern = annotationValue(annotation);
+                        steps.put(new JSONObject().put("keyword", annotationType.getSimpleName()).put("pattern", pattern)
+                                .put("method", method.getName()));
+                        expressions.add(expressionFactory.createExpression(pattern));
+                    } else if (annotationType.getPackageName().equals("io.cucumber.java")
+                            && HOOK_ANNOTATIONS.contains(annotationType.getSimpleName())) {
+                        hooks.put(annotationType.getSimpleName() + " " + method.getName());
+                    }
+                }
+            }
+            if (!steps.isEmpty() || !hooks.isEmpty()) {
+                glue.put(new JSONObject().put("class", className).put("steps", steps).put("hooks", hooks));
+            }
+        }
+
+        JSONArray features = new JSONArray();
+        Set<String> undefined = new TreeSet<>();
+        GherkinParser parser = GherkinParser.builder().includeSource(false).includeGherkinDocument(false).build();
+        for (Path root : roots) {
+            for (Path feature : featureFiles(root)) {
+                JSONArray pickles = new JSONArray();
+                try (Stream<Envelope> envelopes = parser.parse(feature)) {
+                    envelopes.map(Envelope::getPickle).flatMap(Optional::stream).forEach(pickle -> {
+                        pickles.put(describe(pickle));
+                        for (PickleStep step : pickle.getSteps()) {
+                            if (expressions.stream().noneMatch(e -> e.match(step.getText()) != null)) {
+                                undefined.add(step.getText());
+                            }
+                        }
+                    });
+                }
+                features.put(new JSONObject()
+                        .put("path", root.relativize(feature).toString().replace(File.separatorChar, '/'))
+                        .put("pickles", pickles));
+            }
+        }
+
+        JSONObject index = new JSONObject()
+                .put("generatedAt", System.currentTimeMillis())
+                .put("glue", glue)
+                .put("features", features)
+                .put("undefinedSteps", new JSONArray(undefined));
+        return index.put("fingerprint", fingerprint(roots, gluePackages(index)));
+    }
+
+    private static JSONObject describe(Pickle pickle) {
+        JSONArray tags = new JSONArray();
+        pickle.getTags().stream().map(PickleTag::getName).forEach(tags::put);
+        return new JSONObject()
+                .put("name", pickle.getName())
+                .put("uri", pickle.getUri())
+                .put("tags", tags)
+                .put("steps", pickle.getSteps().size());
+    }
+
+    private static String annotationValue(Annotation annotation) {
+        try {
+            return String.valueOf(annotation.annotationType().getMethod("value").invoke(annotation));
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Step annotation without value: " + annotation, e);
+        }
+    }
+
+    /**
+     * Hashes the names, sizes and modification times of the glue packages' class files and of all feature files.
+     * Listing files is much cheaper than loading classes or parsing Gherkin.
+     */
+    private static String fingerprint(List<Path> roots, Set<String> gluePackages) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Path root : roots) {
+                List<Path> files = new ArrayList<>(featureFiles(root));
+                for (String gluePackage : gluePackages) {
+                    Path dir = root.resolve(gluePackage.replace('.', File.separatorChar));
+                    if (Files.isDirectory(dir)) {
+                        try (Stream<Path> classes = Files.list(dir)) {
+                            classes.filter(p -> p.toString().endsWith(".class")).forEach(files::add);
+                        }
+                    }
+                }
+                files.sort(null);
+                for (Path file : files) {
+                    digest.update((root.relativize(file) + "|" + Files.size(file) + "|"
+                            + Files.getLastModifiedTime(file).toMillis() + "\n").getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            return "unavailable: " + e.getMessage();
+        }
+    }
+
+    private static Set<String> gluePackages(JSONObject index) {
+        Set<String> packages = new TreeSet<>();
+        for (String className : glueClasses(index)) {
+            int dot = className.lastIndexOf('.');
+            packages.add(dot < 0 ? "" : className.substring(0, dot));
+        }
+        return packages;
+    }
+
+    private static List<Path> featureFiles(Path root) throws IOException {
+        Path features = root.resolve("features");
+        if (!Files.isDirectory(features)) {
+            return List.of();
+        }
+        try (Stream<Path> walk = Files.walk(features)) {
+            return walk.filter(p -> p.toString().endsWith(".feature")).sorted().toList();
+        }
+    }
+
+    private static List<String> classNames(List<Path> roots) throws IOException {
+        List<String> names = new ArrayList<>();
+        for (Path root : roots) {
+            try (Stream<Path> walk = Files.walk(root)) {
+                walk.filter(p -> p.toString().endsWith(".class") && !p.getFileName().toString().contains("$"))
+                        .map(p -> root.relativize(p).toString())
+                        .map(p -> p.substring(0, p.length() - ".class".length()).replace(File.separatorChar, '.'))
+                        .sorted()
+                        .forEach(names::add);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Returns the directories (not jars) on the classpath: the compiled test classes and test resources.
+     */
+    private static List<Path> classpathDirectories() {
+        return Stream.of(System.getProperty("java.class.path").split(File.pathSeparator))
+                .map(Paths::get)
+                .filter(Files::isDirectory)
+                .toList();
+    }
+}
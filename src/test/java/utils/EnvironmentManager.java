@@ -4,7 +4,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * EnvironmentManager is responsible for loading and managing configuration properties
@@ -18,33 +21,49 @@ import java.util.Properties;
  * </ul>
  * <p>
  * The active environment is determined by the system property {@code env}, defaulting to {@code dev}.
+ * <p>
+ * A thread can enter a scenario-scoped context with {@link #enterScope(String, Map)} to use another environment's
+ * file and its own overrides (e.g., {@code browser}) until {@link #exitScope()}, so one JVM can run scenarios for
+ * several environment × browser combinations at once.
  */
 public class EnvironmentManager {
 
     private static final Logger logger = LoggerFactory.getLogger(EnvironmentManager.class);
+    private static final Properties general = new Properties();
     private static final Properties properties = new Properties();
+    private static final Map<String, Properties> scopedEnvironments = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Scope> scope = new ThreadLocal<>();
+    private static final String DEFAULT_ENV = System.getProperty("env", "dev").toLowerCase();
+
+    /**
+     * A thread's scenario-scoped configuration: the environment's properties and explicit overrides.
+     */
+    private record Scope(String env, Properties environment, Map<String, String> overrides) {
+    }
 
     static {
         // Load general config
-        loadProperties("config/config.properties");
+        loadProperties(general, "config/config.properties");
+        properties.putAll(general);
 
         // Load environment-specific config
-        String env = System.getProperty("env", "dev").toLowerCase();
-        String envFile = String.format("config/%s.properties", env);
-        logger.info("🌐 Active environment: {}", env);
-        loadProperties(envFile);
+        String envFile = String.format("config/%s.properties", DEFAULT_ENV);
+        logger.info("🌐 Active environment: {}", DEFAULT_ENV);
+        loadProperties(properties, envFile);
+        scopedEnvironments.put(DEFAULT_ENV, properties);
     }
 
     /**
-     * Loads the specified properties file from the classpath into the properties store.
+     * Loads the specified properties file from the classpath into the given properties store.
      *
+     * @param target   the properties to load into
      * @param filePath the relative path to the properties file (e.g., "config/dev.properties")
      * @throws RuntimeException if the file cannot be found or loaded
      */
-    private static void loadProperties(String filePath) {
+    private static void loadProperties(Properties target, String filePath) {
         try (InputStream input = EnvironmentManager.class.getClassLoader().getResourceAsStream(filePath)) {
             if (input != null) {
-                properties.load(input);
+                target.load(input);
                 logger.info("✅ Loaded properties from {}", filePath);
             } else {
                 logger.error("❌ Could not find config file: {}", filePath);
@@ -56,11 +75,58 @@ public class EnvironmentManager {
         }
     }
 
+    /**
+     * Switches the current thread to a scenario-scoped configuration. Values are then resolved from the overrides,
+     * system properties, the given environment's file and {@code config.properties}, in that order.
+     *
+     * @param env       the environment whose {@code config/<env>.properties} to use (e.g., "stag")
+     * @param overrides values that take precedence over everything else (e.g., {@code browser=firefox})
+     */
+    public static void enterScope(String env, Map<String, String> overrides) {
+        String name = env.toLowerCase();
+        Properties environment = scopedEnvironments.computeIfAbsent(name, key -> {
+            Properties loaded = new Properties();
+            loaded.putAll(general);
+            loadProperties(loaded, String.format("config/%s.properties", key));
+            return loaded;
+        });
+        Map<String, String> values = new HashMap<>(overrides);
+        values.put("env", name);
+        scope.set(new Scope(name, environment, Map.copyOf(values)));
+    }
+
+    /**
+     * Returns the current thread to the JVM-wide configuration.
+     */
+    public static void exitScope() {
+        scope.remove();
+    }
+
+    /**
+     * Tells whether the current thread is in a scenario-scoped configuration.
+     *
+     * @return true between {@link #enterScope(String, Map)} and {@link #exitScope()}
+     */
+    public static boolean isScoped() {
+        return scope.get() != null;
+    }
+
+    /**
+     * Returns the environment in effect for the current thread.
+     *
+     * @return the scoped environment, or the {@code env} system property (default {@code dev})
+     */
+    public static String currentEnv() {
+        Scope current = scope.get();
+        return current != null ? current.env() : DEFAULT_ENV;
+    }
+
     /**
      * Retrieves a configuration value by key. The method checks for:
      * <ol>
+     *     <li>Override of the current thread's scope, if any (see {@link #enterScope(String, Map)})</li>
      *     <li>System property (e.g., passed via -Dkey=value)</li>
-     *     <li>Value from loaded properties file</li>
+     *     <li>Value from loaded properties file (of the scope's environment, if any)</li>
      *     <li>Fallback to the provided default value</li>
      * </ol>
      *
@@ -69,8 +135,15 @@ public class EnvironmentManager {
      * @return the resolved configuration value
      */
     public static String get(String key, String defaultValue) {
+        Scope current = scope.get();
+        if (current != null) {
+            String scopedValue = current.overrides().get(key);
+            if (scopedValue != null && !scopedValue.trim().isEmpty()) {
+                return scopedValue;
+            }
+        }
         String systemValue = System.getProperty(key);
-        String fileValue = properties.getProperty(key);
+        String fileValue = (current != null ? current.environment() : properties).getProperty(key);
 
         if (systemValue != null && !systemValue.trim().isEmpty()) {
 //            logger.info("📦 [System Property] {} = {}", key, systemValue);
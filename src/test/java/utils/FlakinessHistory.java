@@ -0,0 +1,143 @@
+package utils;
+
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Persistent record of scenario outcomes across runs, used to make chronically flaky scenarios visible.
+ * <p>
+ * Outcomes are collected in memory during a run and merged into a JSON file (configurable with
+ * {@code retry.history.file}, default {@code build/flakiness-history.json}) when {@link #save()} is called.
+ * The file is locked while merging so concurrent Gradle forks do not overwrite each other's results.
+ * <p>
+ * For each scenario the file tracks:
+ * <ul>
+ *     <li>{@code runs} – number of runs in which the scenario was executed</li>
+ *     <li>{@code flakes} – runs in which it failed first and passed on a retry</li>
+ *     <li>{@code failures} – runs in which it failed on every attempt</li>
+ * </ul>
+ */
+public class FlakinessHistory {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlakinessHistory.class);
+    private static final Path HISTORY_FILE = Paths.get(EnvironmentManager.get("retry.history.file", "build/flakiness-history.json"));
+    private static final int CHRONIC_FLAKE_THRESHOLD = 3;
+
+    private final Map<String, Outcome> outcomes = new LinkedHashMap<>();
+
+    /**
+     * Records a scenario that passed on its first attempt.
+     */
+    public synchronized void recordPassed(String key, String name) {
+        outcomes.put(key, new Outcome(name, Result.PASSED, 1));
+    }
+
+    /**
+     * Records a scenario that failed first and passed on the given attempt.
+     */
+    public synchronized void recordFlaky(String key, String name, int attempt) {
+        outcomes.put(key, new Outcome(name, Result.FLAKY, attempt));
+    }
+
+    /**
+     * Records a scenario that failed on every attempt.
+     */
+    public synchronized void recordFailed(String key, String name, int attempts) {
+        outcomes.put(key, new Outcome(name, Result.FAILED, attempts));
+    }
+
+    /**
+     * Merges the outcomes collected in this run into the history file and logs chronic flakes.
+     */
+    public synchronized void save() {
+        if (outcomes.isEmpty()) {
+            return;
+        }
+        try {
+            if (HISTORY_FILE.getParent() != null) {
+                Files.createDirectories(HISTORY_FILE.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(HISTORY_FILE,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+
+                JSONObject root = read(channel);
+                JSONObject scenarios = root.optJSONObject("scenarios");
+                if (scenarios == null) {
+                    scenarios = new JSONObject();
+                    root.put("scenarios", scenarios);
+                }
+
+                String now = Instant.now().toString();
+                for (Map.Entry<String, Outcome> entry : outcomes.entrySet()) {
+                    merge(scenarios, entry.getKey(), entry.getValue(), now);
+                }
+
+                byte[] bytes = root.toString(2).getBytes(StandardCharsets.UTF_8);
+                channel.truncate(0);
+                channel.write(ByteBuffer.wrap(bytes), 0);
+            }
+            logger.info("📈 Flakiness history updated: {} ({} scenarios)", HISTORY_FILE.toAbsolutePath(), outcomes.size());
+        } catch (IOException e) {
+            logger.error("❌ Failed to update flakiness history: {}", e.getMessage(), e);
+        }
+    }
+
+    private static void merge(JSONObject scenarios, String key, Outcome outcome, String now) {
+        JSONObject entry = scenarios.optJSONObject(key);
+        if (entry == null) {
+            entry = new JSONObject().put("runs", 0).put("flakes", 0).put("failures", 0);
+            scenarios.put(key, entry);
+        }
+        entry.put("name", outcome.name());
+        entry.put("runs", entry.getInt("runs") + 1);
+        entry.put("lastRun", now);
+        entry.put("lastResult", outcome.result().name());
+        entry.put("lastAttempts", outcome.attempts());
+
+        if (outcome.result() == Result.FLAKY) {
+            int flakes = entry.getInt("flakes") + 1;
+            entry.put("flakes", flakes);
+            entry.put("lastFlaky", now);
+            if (flakes >= CHRONIC_FLAKE_THRESHOLD) {
+                logger.warn("🔁 Chronic flake: '{}' passed only on retry in {} of {} runs",
+                        outcome.name(), flakes, entry.getInt("runs"));
+            }
+        } else if (outcome.result() == Result.FAILED) {
+            entry.put("failures", entry.getInt("failures") + 1);
+        }
+    }
+
+    private static JSONObject read(FileChannel channel) throws IOException {
+        if (channel.size() == 0) {
+            return new JSONObject();
+        }
+        String content = new String(Channels.newInputStream(channel.position(0)).readAllBytes(), StandardCharsets.UTF_8);
+        try {
+            return new JSONObject(content);
+        } catch (RuntimeException e) {
+            logger.warn("⚠️ Ignoring unreadable flakiness history: {}", e.getMessage());
+            return new JSONObject();
+        }
+    }
+
+    private enum Result { PASSED, FLAKY, FAILED }
+
+    private record Outcome(String name, Result result, int attempts) {
+    }
+}
@@ -0,0 +1,235 @@
+package utils;
+
+import org.opentest4j.TestAbortedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-host circuit breaker that fails fast when the system under test is unreachable.
+ * <p>
+ * Navigation failures (from the driver decorator) and CDP network errors (from {@link BrowserLogUtils}) are
+ * reported per host. After {@code circuit.failure.threshold} consecutive failures the circuit for that host
+ * opens and every further navigation to it is rejected immediately instead of waiting for page-load timeouts.
+ * After {@code circuit.open.seconds} a single probe navigation is let through (half-open); its outcome closes
+ * or re-opens the circuit.
+ * <p>
+ * Before a scenario launches its browser, the circuits of the hosts its feature navigated to in earlier
+ * scenarios are checked (the feature's first scenario falls back to {@code base.url}), so scenarios of a feature
+ * whose site is down are rejected without paying for a browser launch.
+ * <p>
+ * Rejected scenarios are skipped ({@code circuit.open.action=skip}, the default) or failed ({@code fail}).
+ */
+public class HostCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(HostCircuitBreaker.class);
+
+    private static final boolean ENABLED = Boolean.parseBoolean(EnvironmentManager.get("circuit.breaker.enabled", "true"));
+    private static final int FAILURE_THRESHOLD = Integer.parseInt(EnvironmentManager.get("circuit.failure.threshold", "3"));
+    private static final long OPEN_NANOS = TimeUnit.SECONDS.toNanos(Long.parseLong(EnvironmentManager.get("circuit.open.seconds", "30")));
+    private static final boolean SKIP_WHEN_OPEN = EnvironmentManager.get("circuit.open.action", "skip").equalsIgnoreCase("skip");
+
+    private static final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+    /** Hosts navigated to by the scenarios of each feature file, keyed by feature URI. */
+    private static final Map<String, Set<String>> featureHosts = new ConcurrentHashMap<>();
+    private static final ThreadLocal<String> currentFeature = new ThreadLocal<>();
+
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * Mutable circuit state for one host; guarded by its own monitor.
+     */
+    private static final class Circuit {
+        private State state = State.CLOSED;
+        private int consecutiveFailures;
+        private long openedAtNanos;
+        private long lastFailureNanos;
+        private boolean probeInFlight;
+        private long probeStartedNanos;
+        private String lastError = "";
+    }
+
+    /**
+     * Returns whether the circuit breaker is enabled via {@code circuit.breaker.enabled}.
+     *
+     * @return true if enabled
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Called before a navigation. Lets the call through if the circuit is closed, or if it is half-open and no
+     * probe is running yet (this call becomes the probe).
+     *
+     * @param url the target URL
+     * @throws TestAbortedException or RuntimeException (per {@code circuit.open.action}) if the host's circuit is open
+     */
+    public static void beforeNavigation(String url) {
+        String host = hostOf(url);
+        if (!ENABLED || host == null) {
+            return;
+        }
+        String feature = currentFeature.get();
+        if (feature != null) {
+            featureHosts.computeIfAbsent(feature, f -> ConcurrentHashMap.newKeySet()).add(host);
+        }
+        Circuit circuit = circuits.computeIfAbsent(host, h -> new Circuit());
+        synchronized (circuit) {
+            if (circuit.state == State.OPEN && System.nanoTime() - circuit.openedAtNanos >= OPEN_NANOS) {
+                circuit.state = State.HALF_OPEN;
+                circuit.probeInFlight = false;
+            }
+            // A probe whose scenario died without reporting an outcome must not block the host forever
+            boolean probeStale = circuit.probeInFlight && System.nanoTime() - circuit.probeStartedNanos >= OPEN_NANOS;
+            if (circuit.state == State.HALF_OPEN && (!circuit.probeInFlight || probeStale)) {
+                circuit.probeInFlight = true;
+                circuit.probeStartedNanos = System.nanoTime();
+                logger.info("🔌 Circuit for {} is half-open, probing with {}", host, url);
+                return;
+            }
+            if (circuit.state != State.CLOSED) {
+                throw rejection(host, circuit);
+            }
+        }
+    }
+
+    /**
+     * Called before a scenario starts, before any browser is launched. Rejects the scenario if the circuit for
+     * any host its feature navigated to so far is open and not yet due for a probe; for a feature without
+     * recorded navigations, the host of {@code fallbackUrl} is checked. Never consumes the half-open probe.
+     * Navigations of the current thread are recorded for the given feature from now on.
+     *
+     * @param feature     the scenario's feature URI
+     * @param fallbackUrl the URL guarded for a feature that has not navigated yet (e.g., {@code base.url}); may be blank
+     */
+    public static void beforeScenario(String feature, String fallbackUrl) {
+        currentFeature.set(feature);
+        if (!ENABLED) {
+            return;
+        }
+        Set<String> hosts = featureHosts.get(feature);
+        if (hosts == null || hosts.isEmpty()) {
+            String host = hostOf(fallbackUrl);
+            hosts = host == null ? Set.of() : Set.of(host);
+        }
+        for (String host : hosts) {
+            Circuit circuit = circuits.get(host);
+            if (circuit == null) {
+                continue;
+            }
+            synchronized (circuit) {
+                if (circuit.state == State.OPEN && System.nanoTime() - circuit.openedAtNanos < OPEN_NANOS) {
+                    throw rejection(host, circuit);
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a successful navigation. Ignored if a failure for the same host was reported after the navigation
+     * started, since browsers such as Chrome complete {@code get()} normally on network error pages.
+     *
+     * @param url             the navigated URL
+     * @param startedAtNanos  {@link System#nanoTime()} when the navigation started
+     */
+    public static void recordSuccess(String url, long startedAtNanos) {
+        String host = hostOf(url);
+        if (!ENABLED || host == null) {
+            return;
+        }
+        Circuit circuit = circuits.computeIfAbsent(host, h -> new Circuit());
+        synchronized (circuit) {
+            if (circuit.lastFailureNanos > startedAtNanos) {
+                return;
+            }
+            if (circuit.state != State.CLOSED) {
+                logger.info("✅ Circuit for {} closed, host is reachable again", host);
+            }
+            circuit.state = State.CLOSED;
+            circuit.consecutiveFailures = 0;
+            circuit.probeInFlight = false;
+        }
+    }
+
+    /**
+     * Records a navigation or network failure for the host of the given URL.
+     *
+     * @param url    the URL that failed
+     * @param reason a short description of the failure
+     */
+    public static void recordFailure(String url, String reason) {
+        recordFailure(url, reason, Long.MIN_VALUE);
+    }
+
+    /**
+     * Records a failed navigation, unless a failure for the same host was already reported after it started
+     * (e.g., by the CDP network listener for the same page load), so one failed load counts once.
+     *
+     * @param url            the URL that failed
+     * @param reason         a short description of the failure
+     * @param startedAtNanos {@link System#nanoTime()} when the navigation started
+     */
+    public static void recordFailure(String url, String reason, long startedAtNanos) {
+        String host = hostOf(url);
+        if (!ENABLED || host == null) {
+            return;
+        }
+        Circuit circuit = circuits.computeIfAbsent(host, h -> new Circuit());
+        synchronized (circuit) {
+            if (startedAtNanos != Long.MIN_VALUE && circuit.lastFailureNanos > startedAtNanos) {
+                circuit.lastError = reason;
+                return;
+            }
+            circuit.lastFailureNanos = System.nanoTime();
+            circuit.lastError = reason;
+            circuit.consecutiveFailures++;
+
+            if (circuit.state == State.HALF_OPEN) {
+                open(host, circuit, "probe failed");
+            } else if (circuit.state == State.CLOSED && circuit.consecutiveFailures >= FAILURE_THRESHOLD) {
+                open(host, circuit, circuit.consecutiveFailures + " consecutive failures");
+            } else {
+                logger.debug("⚠️ Failure {} of {} for {}: {}", circuit.consecutiveFailures, FAILURE_THRESHOLD, host, reason);
+            }
+        }
+    }
+
+    private static void open(String host, Circuit circuit, String why) {
+        circuit.state = State.OPEN;
+        circuit.openedAtNanos = System.nanoTime();
+        circuit.probeInFlight = false;
+        logger.error("🔌 Circuit for {} opened ({}), last error: {}. Failing fast for {} s",
+                host, why, circuit.lastError, TimeUnit.NANOSECONDS.toSeconds(OPEN_NANOS));
+    }
+
+    private static RuntimeException rejection(String host, Circuit circuit) {
+        String message = "⛔ Host " + host + " is unavailable (circuit " + circuit.state + "), last error: " + circuit.lastError;
+        logger.warn(message);
+        return SKIP_WHEN_OPEN ? new TestAbortedException(message) : new RuntimeException(message);
+    }
+
+    /**
+     * Extracts the host from a URL, or returns null for blank, relative or non-HTTP(S) URLs.
+     */
+    private static String hostOf(String url) {
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        try {
+            URI uri = URI.create(url.trim());
+            String scheme = uri.getScheme();
+            if (scheme == null || !(scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https"))) {
+                return null;
+            }
+            return uri.getHost() == null ? null : uri.getHost().toLowerCase();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
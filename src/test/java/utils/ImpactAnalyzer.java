@@ -0,0 +1,450 @@
+package utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Change-impact analyzer that selects only the Cucumber features affected by a set of changed files.
+ * <p>
+ * A static map is built from the sources:
+ * <ol>
+ *     <li>feature files → step texts</li>
+ *     <li>step texts → step-definition classes (by matching Cucumber expressions / regexes)</li>
+ *     <li>classes → the classes they reference (imports, same-package and static references), transitively</li>
+ * </ol>
+ * A feature is affected if it changed itself, if one of its step-definition classes transitively references
+ * a changed class, or if any of its steps matches no step pattern: such a feature cannot be mapped, and is most
+ * likely broken by the change that renamed or edited the pattern. Scenario Outline steps are expanded with their
+ * Examples rows before matching. Changes to shared code – anything reachable from a hook class (e.g. {@code Hooks},
+ * {@code DriverFactory}), runners, build files or non-feature resources – fall back to running everything.
+ * <p>
+ * Usage (from the project root):
+ * <pre>
+ * ./gradlew impactedFeatures -PimpactBase=origin/main
+ * ./gradlew test -Dcucumber.features="$(cat build/impact/cucumber.features)"
+ * </pre>
+ * The result is printed and written to {@code build/impact/selection.properties}; {@code build/impact/cucumber.features}
+ * holds the value for {@code -Dcucumber.features}: empty when everything must run, and {@value Selection#NONE} when
+ * no feature is affected, which makes the {@code test} task skip itself.
+ */
+public class ImpactAnalyzer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImpactAnalyzer.class);
+
+    private static final Path JAVA_ROOT = Paths.get("src/test/java");
+    private static final Path RESOURCES_ROOT = Paths.get("src/test/resources");
+    private static final Path OUTPUT_DIR = Paths.get("build/impact");
+
+    private static final Pattern IMPORT = Pattern.compile("^\\s*import\\s+(static\\s+)?([\\w.]+)(\\.\\*)?\\s*;", Pattern.MULTILINE);
+    private static final Pattern STEP_ANNOTATION = Pattern.compile("@(?:Given|When|Then|And|But)\\s*\\(\\s*\"((?:[^\"\\\\]|\\\\.)*)\"");
+    private static final Pattern HOOK_ANNOTATION = Pattern.compile("@(?:Before|After|BeforeStep|AfterStep|BeforeAll|AfterAll)\\b");
+    private static final Pattern STEP_LINE = Pattern.compile("^\\s*(?:Given|When|Then|And|But|\\*)\\s+(.+?)\\s*$");
+    private static final Pattern PARAMETER = Pattern.compile("\\{(\\w*)}");
+    private static final Pattern OUTLINE_LINE = Pattern.compile("^\\s*Scenario (?:Outline|Template):");
+    private static final Pattern SCENARIO_LINE = Pattern.compile("^\\s*(?:Feature|Rule|Background|Scenario|Example):");
+    private static final Pattern EXAMPLES_LINE = Pattern.compile("^\\s*(?:Examples|Scenarios):");
+    private static final List<String> IGNORED_SUFFIXES = List.of(".md", ".txt");
+    private static final List<String> IGNORED_PREFIXES = List.of(".idea/", "docs/");
+
+    /**
+     * Outcome of an impact analysis.
+     *
+     * @param runAll   true if everything must run (shared code or unmappable files changed)
+     * @param features affected feature paths relative to {@code src/test/resources}; empty if nothing is affected
+     * @param reason   human-readable explanation of the decision
+     */
+    public record Selection(boolean runAll, Set<String> features, String reason) {
+
+        /** The {@code -Dcucumber.features} value meaning "no feature affected"; the {@code test} task skips on it. */
+        public static final String NONE = "none";
+
+        /**
+         * Returns the value for {@code -Dcucumber.features}: an empty string when everything must run,
+         * {@link #NONE} when nothing is affected, and the affected features otherwise.
+         */
+        public String cucumberFeatures() {
+            if (runAll) {
+                return "";
+            }
+            if (features.isEmpty()) {
+                return NONE;
+            }
+            return features.stream().map(f -> "classpath:" + f).collect(Collectors.joining(","));
+        }
+    }
+
+    private final Map<String, Path> classFiles = new HashMap<>();
+    private final Map<String, Set<String>> references = new HashMap<>();
+    private final Map<String, List<Pattern>> stepPatterns = new HashMap<>();
+    private final Set<String> hookClasses = new HashSet<>();
+    private final Map<String, List<String>> featureSteps = new HashMap<>();
+
+    /**
+     * Builds the static map from the sources under {@code src/test}.
+     *
+     * @throws IOException if the sources cannot be read
+     */
+    public ImpactAnalyzer() throws IOException {
+        indexJavaSources();
+        indexFeatures();
+    }
+
+    /**
+     * Entry point: {@code ImpactAnalyzer <base-ref>} analyzes {@code git diff <base-ref>...HEAD} plus uncommitted
+     * changes; {@code ImpactAnalyzer --files a,b,c} analyzes an explicit list of repository-relative paths.
+     */
+    public static void main(String[] args) throws Exception {
+        List<String> changed;
+        if (args.length >= 2 && args[0].equals("--files")) {
+            changed = Arrays.stream(args[1].split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+        } else {
+            String base = args.length > 0 ? args[0] : "origin/main";
+            changed = gitChangedFiles(base);
+        }
+
+        Selection selection = new ImpactAnalyzer().analyze(changed);
+        write(selection);
+
+        System.out.println("Impact: " + selection.reason());
+        if (selection.runAll()) {
+            System.out.println("Run: ALL features");
+        } else {
+            System.out.println("Run: " + (selection.features().isEmpty() ? "no features" : String.join(", ", selection.features())));
+        }
+    }
+
+    /**
+     * Determines which features are affected by the given changed files.
+     *
+     * @param changedFiles repository-relative paths of changed files
+     * @return the selection of features to run
+     */
+    public Selection analyze(List<String> changedFiles) {
+        Set<String> features = new TreeSet<>();
+        Set<String> changedClasses = new HashSet<>();
+
+        for (String raw : changedFiles) {
+            String file = raw.replace('\\', '/');
+            if (isIgnored(file)) {
+                continue;
+            }
+            if (file.startsWith(RESOURCES_ROOT + "/") && file.endsWith(".feature")) {
+                features.add(file.substring(RESOURCES_ROOT.toString().length() + 1));
+                continue;
+            }
+            String className = classNameOf(file);
+            if (className == null) {
+                return new Selection(true, Set.of(), "unmapped change " + file);
+            }
+            changedClasses.add(className);
+        }
+
+        Set<String> shared = reachableFrom(hookClasses);
+        for (String changed : changedClasses) {
+            if (shared.contains(changed) || changed.startsWith("runners.")) {
+                return new Selection(true, Set.of(), "shared code changed: " + changed);
+            }
+        }
+
+        Set<String> undefined = new TreeSet<>();
+        for (Map.Entry<String, List<String>> feature : featureSteps.entrySet()) {
+            if (feature.getValue().stream().anyMatch(step -> stepClassesFor(List.of(step)).isEmpty())) {
+                undefined.add(feature.getKey());
+                features.add(feature.getKey());
+                continue;
+            }
+            Set<String> glue = stepClassesFor(feature.getValue());
+            if (glue.stream().map(c -> reachableFrom(Set.of(c))).anyMatch(r -> r.stream().anyMatch(changedClasses::contains))) {
+                features.add(feature.getKey());
+            }
+        }
+
+        String reason = features.isEmpty()
+                ? "no feature depends on the changed files"
+                : features.size() + " affected feature(s) from " + changedFiles.size() + " changed file(s)";
+        if (!undefined.isEmpty()) {
+            reason += ", including " + undefined.size() + " with steps matching no step definition: " + String.join(", ", undefined);
+        }
+        return new Selection(false, features, reason);
+    }
+
+    /**
+     * Finds the step-definition classes whose patterns match any of the given step texts.
+     */
+    private Set<String> stepClassesFor(List<String> steps) {
+        Set<String> classes = new HashSet<>();
+        for (String step : steps) {
+            for (Map.Entry<String, List<Pattern>> entry : stepPatterns.entrySet()) {
+                if (entry.getValue().stream().anyMatch(p -> p.matcher(step).matches())) {
+                    classes.add(entry.getKey());
+                }
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * Returns the given classes plus every class they transitively reference.
+     */
+    private Set<String> reachableFrom(Set<String> roots) {
+        Set<String> visited = new HashSet<>(roots);
+        Deque<String> queue = new ArrayDeque<>(roots);
+        while (!queue.isEmpty()) {
+            for (String next : references.getOrDefault(queue.poll(), Set.of())) {
+                if (visited.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+        return visited;
+    }
+
+    private void indexJavaSources() throws IOException {
+        if (!Files.isDirectory(JAVA_ROOT)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(JAVA_ROOT)) {
+            paths.filter(p -> p.toString().endsWith(".java")).forEach(p -> {
+                String className = classNameOf(p.toString().replace('\\', '/'));
+                if (className != null) {
+                    classFiles.put(className, p);
+                }
+            });
+        }
+
+        Map<String, String> bySimpleName = new HashMap<>();
+        classFiles.keySet().forEach(c -> bySimpleName.put(c.substring(c.lastIndexOf('.') + 1), c));
+
+        for (Map.Entry<String, Path> entry : classFiles.entrySet()) {
+            String source = Files.readString(entry.getValue(), StandardCharsets.UTF_8);
+            references.put(entry.getKey(), referencedClasses(entry.getKey(), source, bySimpleName));
+
+            List<Pattern> patterns = new ArrayList<>();
+            Matcher step = STEP_ANNOTATION.matcher(source);
+            while (step.find()) {
+                patterns.add(toPattern(step.group(1).replace("\\\"", "\"").replace("\\\\", "\\")));
+            }
+            if (!patterns.isEmpty()) {
+                stepPatterns.put(entry.getKey(), patterns);
+            }
+            if (HOOK_ANNOTATION.matcher(source).find() && source.contains("io.cucumber.java")) {
+                hookClasses.add(entry.getKey());
+            }
+        }
+        logger.info("🔎 Indexed {} classes, {} step-definition classes, {} hook classes",
+                classFiles.size(), stepPatterns.size(), hookClasses.size());
+    }
+
+    /**
+     * Resolves the project classes referenced by a source file through imports, static imports and
+     * same-package simple names.
+     */
+    private Set<String> referencedClasses(String className, String source, Map<String, String> bySimpleName) {
+        Set<String> result = new LinkedHashSet<>();
+        String pkg = className.contains(".") ? className.substring(0, className.lastIndexOf('.')) : "";
+
+        Matcher imports = IMPORT.matcher(source);
+        while (imports.find()) {
+            String name = imports.group(2);
+            boolean isStatic = imports.group(1) != null;
+            boolean wildcard = imports.group(3) != null;
+            if (isStatic && !wildcard) {
+                name = name.substring(0, name.lastIndexOf('.'));
+            }
+            if (classFiles.containsKey(name)) {
+                result.add(name);
+            } else if (wildcard) {
+                String prefix = name + ".";
+                classFiles.keySet().stream()
+                        .filter(c -> c.startsWith(prefix) && c.indexOf('.', prefix.length()) < 0)
+                        .filter(c -> containsWord(source, c.substring(prefix.length())))
+                        .forEach(result::add);
+            }
+        }
+
+        for (Map.Entry<String, String> candidate : bySimpleName.entrySet()) {
+            String other = candidate.getValue();
+            String otherPkg = other.contains(".") ? other.substring(0, other.lastIndexOf('.')) : "";
+            if (otherPkg.equals(pkg) && containsWord(source, candidate.getKey())) {
+                result.add(other);
+            }
+        }
+        result.remove(className);
+        return result;
+    }
+
+    private void indexFeatures() throws IOException {
+        if (!Files.isDirectory(RESOURCES_ROOT)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(RESOURCES_ROOT)) {
+            for (Path path : paths.filter(p -> p.toString().endsWith(".feature")).toList()) {
+                featureSteps.put(RESOURCES_ROOT.relativize(path).toString().replace('\\', '/'),
+                        stepsOf(Files.readAllLines(path, StandardCharsets.UTF_8)));
+            }
+        }
+        logger.info("🔎 Indexed {} feature files", featureSteps.size());
+    }
+
+    /**
+     * Extracts the step texts of a feature file. Scenario Outline steps are added once per Examples row, with the
+     * {@code <placeholders>} replaced by the row's values, so they can be matched like plain steps.
+     */
+    static List<String> stepsOf(List<String> lines) {
+        List<String> steps = new ArrayList<>();
+        List<String> outline = null;
+        List<String> header = null;
+        boolean inExamples = false;
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (OUTLINE_LINE.matcher(line).find()) {
+                outline = new ArrayList<>();
+                inExamples = false;
+            } else if (SCENARIO_LINE.matcher(line).find()) {
+                outline = null;
+                inExamples = false;
+            } else if (EXAMPLES_LINE.matcher(line).find()) {
+                header = null;
+                inExamples = outline != null;
+            } else if (inExamples && trimmed.startsWith("|")) {
+                List<String> cells = Arrays.stream(trimmed.substring(1, trimmed.length() - 1).split("\\|", -1))
+                        .map(String::trim).toList();
+                if (header == null) {
+                    header = cells;
+                    continue;
+                }
+                for (String step : outline) {
+                    for (int i = 0; i < header.size() && i < cells.size(); i++) {
+                        step = step.replace("<" + header.get(i) + ">", cells.get(i));
+                    }
+                    steps.add(step);
+                }
+            } else {
+                Matcher matcher = STEP_LINE.matcher(line);
+                if (matcher.matches()) {
+                    (outline != null ? outline : steps).add(matcher.group(1));
+                }
+            }
+        }
+        return steps;
+    }
+
+    /**
+     * Converts a step annotation value into a regex. Values starting with {@code ^} or ending with {@code $}
+     * are treated as regular expressions, anything else as a Cucumber expression.
+     */
+    static Pattern toPattern(String expression) {
+        if (expression.startsWith("^") || expression.endsWith("$")) {
+            return Pattern.compile(expression);
+        }
+
+        StringBuilder regex = new StringBuilder("^");
+        Matcher parameter = PARAMETER.matcher(expression);
+        int last = 0;
+        while (parameter.find()) {
+            regex.append(literal(expression.substring(last, parameter.start())));
+            regex.append(switch (parameter.group(1)) {
+                case "int", "byte", "short", "long", "biginteger" -> "-?\\d+";
+                case "float", "double", "bigdecimal" -> "-?\\d*[.,]?\\d+";
+                case "word" -> "[^\\s]+";
+                case "string" -> "(?:\"[^\"]*\"|'[^']*')";
+                default -> ".*";
+            });
+            last = parameter.end();
+        }
+        regex.append(literal(expression.substring(last))).append("$");
+        return Pattern.compile(regex.toString());
+    }
+
+    /**
+     * Quotes literal expression text, keeping Cucumber optional text such as {@code (s)} optional.
+     */
+    private static String literal(String text) {
+        StringBuilder out = new StringBuilder();
+        Matcher optional = Pattern.compile("\\(([^)]*)\\)").matcher(text);
+        int last = 0;
+        while (optional.find()) {
+            out.append(Pattern.quote(text.substring(last, optional.start())));
+            out.append("(?:").append(Pattern.quote(optional.group(1))).append(")?");
+            last = optional.end();
+        }
+        return out.append(Pattern.quote(text.substring(last))).toString().replace("\\Q\\E", "");
+    }
+
+    private static boolean containsWord(String source, String word) {
+        return Pattern.compile("\\b" + Pattern.quote(word) + "\\b").matcher(source).find();
+    }
+
+    /**
+     * Maps a repository-relative {@code src/test/java} path to its class name, or null for other files.
+     */
+    private static String classNameOf(String file) {
+        String root = JAVA_ROOT.toString().replace('\\', '/') + "/";
+        if (!file.startsWith(root) || !file.endsWith(".java")) {
+            return null;
+        }
+        return file.substring(root.length(), file.length() - ".java".length()).replace('/', '.');
+    }
+
+    private static boolean isIgnored(String file) {
+        return IGNORED_SUFFIXES.stream().anyMatch(file::endsWith) || IGNORED_PREFIXES.stream().anyMatch(file::startsWith);
+    }
+
+    /**
+     * Lists files changed between the merge base with {@code base} and the working tree.
+     */
+    private static List<String> gitChangedFiles(String base) throws IOException, InterruptedException {
+        Set<String> files = new LinkedHashSet<>();
+        files.addAll(git("diff", "--name-only", base + "...HEAD"));
+        files.addAll(git("diff", "--name-only", "HEAD"));
+        logger.info("🔎 {} changed file(s) since {}", files.size(), base);
+        return new ArrayList<>(files);
+    }
+
+    private static List<String> git(String... args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output;
+        try (InputStream in = process.getInputStream()) {
+            output = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        if (process.waitFor() != 0) {
+            throw new IOException("git " + String.join(" ", args) + " failed: " + output.trim());
+        }
+        return output.lines().map(String::trim).filter(l -> !l.isEmpty()).toList();
+    }
+
+    private static void write(Selection selection) throws IOException {
+        Files.createDirectories(OUTPUT_DIR);
+        String mode = selection.runAll() ? "ALL" : selection.features().isEmpty() ? "NONE" : "SELECTED";
+        String properties = "impact.mode=" + mode + "\n"
+                + "impact.reason=" + selection.reason() + "\n"
+                + "cucumber.features=" + selection.cucumberFeatures() + "\n";
+        Files.writeString(OUTPUT_DIR.resolve("selection.properties"), properties, StandardCharsets.UTF_8);
+        Files.writeString(OUTPUT_DIR.resolve("cucumber.features"), selection.cucumberFeatures(), StandardCharsets.UTF_8);
+    }
+}
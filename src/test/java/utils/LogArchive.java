@@ -0,0 +1,250 @@
+package utils;
+
+import io.qameta.allure.Allure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Per-run, indexed archive for browser logs (console, network, HAR) replacing one small file per scenario.
+ * <p>
+ * Layout under {@code log.archive.dir} (default {@code target/logs/runs}):
+ * <pre>
+ * &lt;run id&gt;/&lt;pid&gt;-&lt;worker&gt;.seg   append-only log records written by one worker thread
+ * &lt;run id&gt;/&lt;pid&gt;-&lt;worker&gt;.idx   one line per record: scenario id, type, offset, length
+ * </pre>
+ * Log lines are buffered in memory per scenario and type while the scenario runs (CDP events arrive on other
+ * threads) and written as one contiguous record per type when the scenario ends. {@link #attachToAllure} attaches
+ * a just-flushed record directly; {@link #read(String, String, String)} (or {@link #main}) extracts any scenario's
+ * log from a run on demand via the index files. The run id comes from {@code run.id} (set once per build so all
+ * forks share it) and only the newest {@code log.archive.retention.runs} runs are kept.
+ */
+public class LogArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogArchive.class);
+
+    private static final Path ROOT = Paths.get(EnvironmentManager.get("log.archive.dir", "target/logs/runs"));
+    private static final String RUN_ID = System.getProperty("run.id", new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()));
+    private static final int RETENTION_RUNS = Integer.parseInt(EnvironmentManager.get("log.archive.retention.runs", "5"));
+
+    private static final Map<String, Map<String, StringBuilder>> buffers = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Segment> segments = new ThreadLocal<>();
+    private static final Map<String, Entry> unattached = new ConcurrentHashMap<>();
+
+    static {
+        applyRetention();
+    }
+
+    /**
+     * The current worker's segment and index files.
+     */
+    private record Segment(Path path, FileChannel data, FileChannel index) {
+    }
+
+    /**
+     * Location of one archived record.
+     */
+    private record Entry(Path segment, long offset, int length) {
+    }
+
+    /**
+     * Returns the id of the current run.
+     *
+     * @return the run id
+     */
+    public static String runId() {
+        return RUN_ID;
+    }
+
+    /**
+     * Buffers a log line for a scenario. Safe to call from any thread.
+     *
+     * @param scenarioId the scenario key
+     * @param type       the log type (e.g., "console", "network", "har")
+     * @param content    the text to append; a newline is added
+     */
+    public static void append(String scenarioId, String type, String content) {
+        StringBuilder buffer = buffers
+                .computeIfAbsent(scenarioId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(type, t -> new StringBuilder());
+        synchronized (buffer) {
+            buffer.append(content).append('\n');
+        }
+    }
+
+    /**
+     * Writes all buffered logs of a scenario to the current worker's segment and indexes them.
+     * Must be called from the scenario's worker thread once no more log lines are expected.
+     *
+     * @param scenarioId the scenario key
+     */
+    public static void flush(String scenarioId) {
+        Map<String, StringBuilder> byType = buffers.remove(scenarioId);
+        if (byType == null) {
+            return;
+        }
+        try {
+            Segment segment = segment();
+            for (Map.Entry<String, StringBuilder> entry : byType.entrySet()) {
+                byte[] bytes;
+                synchronized (entry.getValue()) {
+                    bytes = entry.getValue().toString().getBytes(StandardCharsets.UTF_8);
+                }
+                long offset = segment.data().size();
+                segment.data().write(ByteBuffer.wrap(bytes));
+                String indexLine = scenarioId + "\t" + entry.getKey() + "\t" + offset + "\t" + bytes.length + "\n";
+                segment.index().write(ByteBuffer.wrap(indexLine.getBytes(StandardCharsets.UTF_8)));
+                unattached.put(scenarioId + "\t" + entry.getKey(), new Entry(segment.path(), offset, bytes.length));
+            }
+        } catch (IOException e) {
+            logger.error("❌ Failed to archive logs for {}: {}", scenarioId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads one scenario's log of the given type from a run's archive.
+     *
+     * @param runId      the run id
+     * @param scenarioId the scenario key
+     * @param type       the log type
+     * @return the log content, if archived
+     */
+    public static Optional<String> read(String runId, String scenarioId, String type) {
+        Path runDir = ROOT.resolve(runId);
+        if (!Files.isDirectory(runDir)) {
+            return Optional.empty();
+        }
+        try (Stream<Path> indexes = Files.list(runDir)) {
+            for (Path index : indexes.filter(p -> p.toString().endsWith(".idx")).toList()) {
+                for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+                    String[] parts = line.split("\t");
+                    if (parts.length == 4 && parts[0].equals(scenarioId) && parts[1].equals(type)) {
+                        byte[] bytes = readRecord(segmentFor(index), Long.parseLong(parts[2]), Integer.parseInt(parts[3]));
+                        return Optional.of(new String(bytes, StandardCharsets.UTF_8));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.error("❌ Failed to read archived {} log for {}: {}", type, scenarioId, e.getMessage(), e);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Attaches a log flushed by this JVM to the Allure report, if present. The record is located without scanning
+     * the index files and can be attached once.
+     *
+     * @param scenarioId the scenario key
+     * @param type       the log type
+     * @param label      the attachment name
+     * @return true if a log was attached
+     */
+    public static boolean attachToAllure(String scenarioId, String type, String label) {
+        Entry entry = unattached.remove(scenarioId + "\t" + type);
+        if (entry == null) {
+            return false;
+        }
+        try {
+            byte[] bytes = readRecord(entry.segment(), entry.offset(), entry.length());
+            Allure.addAttachment(label, type.equals("har") ? "application/json" : "text/plain",
+                    new ByteArrayInputStream(bytes), type.equals("har") ? ".har" : ".log");
+            return true;
+        } catch (IOException e) {
+            logger.error("❌ Failed to attach archived {} log for {}: {}", type, scenarioId, e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Command-line reader: {@code LogArchive <run id> <scenario id> [type]} prints an archived log (default console).
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: LogArchive <run id> <scenario id> [console|network|har]");
+            System.exit(1);
+        }
+        String type = args.length > 2 ? args[2] : "console";
+        System.out.print(read(args[0], args[1], type).orElse(""));
+    }
+
+    private static byte[] readRecord(Path segment, long offset, int length) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "r")) {
+            byte[] bytes = new byte[length];
+            file.seek(offset);
+            file.readFully(bytes);
+            return bytes;
+        }
+    }
+
+    private static Path segmentFor(Path index) {
+        String name = index.getFileName().toString();
+        return index.resolveSibling(name.substring(0, name.length() - ".idx".length()) + ".seg");
+    }
+
+    /**
+     * Returns the current worker thread's segment, opening it on first use.
+     */
+    private static Segment segment() throws IOException {
+        Segment segment = segments.get();
+        if (segment == null) {
+            Path runDir = ROOT.resolve(RUN_ID);
+            Files.createDirectories(runDir);
+            String base = ProcessHandle.current().pid() + "-" + Thread.currentThread().getName().replaceAll("[^a-zA-Z0-9-_.]", "_");
+            Path data = runDir.resolve(base + ".seg");
+            segment = new Segment(data,
+                    FileChannel.open(data, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND),
+                    FileChannel.open(runDir.resolve(base + ".idx"), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+            segments.set(segment);
+        }
+        return segment;
+    }
+
+    /**
+     * Deletes all but the newest {@code log.archive.retention.runs} run directories, never the current run.
+     */
+    private static void applyRetention() {
+        if (!Files.isDirectory(ROOT)) {
+            return;
+        }
+        try (Stream<Path> runs = Files.list(ROOT)) {
+            List<Path> old = new ArrayList<>(runs.filter(Files::isDirectory)
+                    .filter(p -> !p.getFileName().toString().equals(RUN_ID))
+                    .sorted(Comparator.comparing((Path p) -> p.toFile().lastModified()).reversed())
+                    .toList());
+            int keep = Math.max(0, RETENTION_RUNS - 1);
+            for (Path run : old.subList(Math.min(keep, old.size()), old.size())) {
+                deleteRecursively(run);
+                logger.debug("🧹 Deleted archived logs of run {}", run.getFileName());
+            }
+        } catch (IOException e) {
+            logger.warn("⚠️ Failed to apply log retention: {}", e.getMessage());
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            for (Path path : walk.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
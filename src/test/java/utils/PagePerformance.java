@@ -0,0 +1,394 @@
+package utils;
+
+import io.qameta.allure.Allure;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.v138.network.Network;
+import org.openqa.selenium.devtools.v138.page.Page;
+import org.openqa.selenium.devtools.v138.runtime.Runtime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Collects page-performance metrics for every top-level navigation on the scenario's CDP session, checks them
+ * against budgets and keeps a trend history across runs.
+ * <p>
+ * A script injected with {@code Page.addScriptToEvaluateOnNewDocument} observes Navigation Timing (TTFB,
+ * DOMContentLoaded, load), largest contentful paint, cumulative layout shift and long tasks, and reports them
+ * through a {@code Runtime.addBinding} callback when the page is left; the current page is flushed at teardown.
+ * Transferred bytes are summed from {@code Network.loadingFinished} on the session already opened by
+ * {@link BrowserLogUtils}.
+ * <p>
+ * Budgets are tags on the scenario or feature, e.g. {@code @budget:lcp<2500}, {@code @budget:cls<0.1}; metrics are
+ * {@code ttfb}, {@code dcl}, {@code load}, {@code lcp} (ms), {@code cls}, {@code longtasks}, {@code longtaskms} and
+ * {@code bytes}. {@code perf.budgets} adds budgets for every scenario. Violations are logged, or fail the scenario
+ * with {@code perf.budget.action=fail}. Each page is appended to {@code perf.trend.file} (JSON lines); a page whose
+ * LCP or load time exceeds {@code perf.regression.ratio} times its median over the last {@code perf.trend.window}
+ * runs is reported as a regression.
+ * <p>
+ * Each page also records how many responses came from the disk cache ({@code responses}, {@code cacheHits}) and
+ * whether the session used the shared {@link BrowserCache} ({@code cache}); trends are compared per cache mode,
+ * and at JVM exit the run's load times are compared with previous runs in the other mode.
+ */
+public class PagePerformance {
+
+    private static final Logger logger = LoggerFactory.getLogger(PagePerformance.class);
+
+    private static final boolean ENABLED = Boolean.parseBoolean(EnvironmentManager.get("perf.enabled", "true"));
+    private static final String DEFAULT_BUDGETS = EnvironmentManager.get("perf.budgets", "");
+    private static final boolean FAIL_ON_VIOLATION = EnvironmentManager.get("perf.budget.action", "warn").equalsIgnoreCase("fail");
+    private static final Path TREND_FILE = Paths.get(EnvironmentManager.get("perf.trend.file", "build/perf-trends.jsonl"));
+    private static final int TREND_WINDOW = Integer.parseInt(EnvironmentManager.get("perf.trend.window", "20"));
+    private static final double REGRESSION_RATIO = Double.parseDouble(EnvironmentManager.get("perf.regression.ratio", "1.5"));
+
+    private static final String BINDING = "__pagePerformanceReport";
+    private static final Pattern BUDGET_TAG = Pattern.compile("@?budget:([a-z]+)<([0-9.]+)");
+    private static final List<String> TREND_METRICS = List.of("lcp", "load");
+
+    /** Injected into every document; reports once per page, on pagehide or when flushed at teardown. */
+    private static final String OBSERVER_SCRIPT = """
+            (() => {
+              if (window.top !== window || window.__pagePerformanceFlush) return;
+              const m = {lcp: 0, cls: 0, longtasks: 0, longtaskms: 0};
+              const observe = (type, onEntry) => {
+                try {
+                  new PerformanceObserver(list => list.getEntries().forEach(onEntry)).observe({type, buffered: true});
+                } catch (e) { /* entry type not supported */ }
+              };
+              observe('largest-contentful-paint', e => { m.lcp = e.startTime; });
+              observe('layout-shift', e => { if (!e.hadRecentInput) m.cls += e.value; });
+              observe('longtask', e => { m.longtasks++; m.longtaskms += e.duration; });
+              let reported = null;
+              window.__pagePerformanceFlush = () => {
+                if (reported) return reported;
+                const nav = performance.getEntriesByType('navigation')[0] || {};
+                reported = JSON.stringify({url: location.href, ttfb: nav.responseStart || 0,
+                  dcl: nav.domContentLoadedEventEnd || 0, load: nav.loadEventEnd || 0, lcp: m.lcp, cls: m.cls,
+                  longtasks: m.longtasks, longtaskms: m.longtaskms});
+                return reported;
+              };
+              addEventListener('pagehide', () => window.%s(window.__pagePerformanceFlush()));
+            })();
+            """.formatted(BINDING);
+
+    private static final ThreadLocal<Collector> collectors = new ThreadLocal<>();
+    /** Load times of this run's pages by URL and cache mode, for the cache comparison at exit. */
+    private static final Map<String, List<Double>> runLoads = new ConcurrentHashMap<>();
+    private static final Map<String, AtomicLong[]> runCacheHits = new ConcurrentHashMap<>();
+    private static Map<String, Map<String, List<Double>>> history;
+
+    static {
+        if (ENABLED) {
+            java.lang.Runtime.getRuntime().addShutdownHook(new Thread(PagePerformance::reportCacheEffect,
+                    "page-performance-cache-report"));
+        }
+    }
+
+    /**
+     * Metrics of the pages visited on one browser session.
+     */
+    private static final class Collector {
+        private final ConcurrentLinkedQueue<JSONObject> pages = new ConcurrentLinkedQueue<>();
+        private final Set<String> payloads = ConcurrentHashMap.newKeySet();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong responses = new AtomicLong();
+        private final AtomicLong cacheHits = new AtomicLong();
+
+        /**
+         * Records a page report once; bytes and responses since the previous report are attributed to it.
+         */
+        void report(String payload) {
+            if (!payloads.add(payload)) {
+                return;
+            }
+            JSONObject page = new JSONObject(payload);
+            page.put("bytes", bytes.getAndSet(0));
+            page.put("responses", responses.getAndSet(0));
+            page.put("cacheHits", cacheHits.getAndSet(0));
+            pages.add(page);
+        }
+    }
+
+    /**
+     * Starts collecting page metrics on a DevTools session opened by {@link BrowserLogUtils}.
+     *
+     * @param tools the DevTools session of the current thread's browser
+     */
+    public static void enable(DevTools tools) {
+        if (!ENABLED) {
+            return;
+        }
+        Collector collector = new Collector();
+        collectors.set(collector);
+
+        tools.send(Runtime.enable());
+        tools.send(Runtime.addBinding(BINDING, Optional.empty(), Optional.empty()));
+        tools.addListener(Runtime.bindingCalled(), call -> {
+            if (BINDING.equals(call.getName())) {
+                collector.report(call.getPayload());
+            }
+        });
+        tools.addListener(Network.loadingFinished(), finished ->
+                collector.bytes.addAndGet(finished.getEncodedDataLength().longValue()));
+        tools.addListener(Network.responseReceived(), received -> {
+            collector.responses.incrementAndGet();
+            if (received.getResponse().getFromDiskCache().orElse(false)) {
+                collector.cacheHits.incrementAndGet();
+            }
+        });
+        tools.send(Page.addScriptToEvaluateOnNewDocument(OBSERVER_SCRIPT, Optional.empty(), Optional.empty(), Optional.empty()));
+    }
+
+    /**
+     * Flushes the current page's metrics, checks all pages of the scenario against its budgets, appends them to
+     * the trend file and attaches them to the Allure report.
+     *
+     * @param driver       the scenario's browser, still open
+     * @param scenarioName the scenario name
+     * @param tags         the scenario's tags, including feature tags, searched for {@code @budget:...}
+     * @return a description of the budget violations if they should fail the scenario, otherwise null
+     */
+    public static String finish(WebDriver driver, String scenarioName, Collection<String> tags) {
+        Collector collector = collectors.get();
+        if (collector == null) {
+            return null;
+        }
+        collectors.remove();
+
+        if (driver instanceof JavascriptExecutor js) {
+            try {
+                Object payload = js.executeScript("return window.__pagePerformanceFlush ? window.__pagePerformanceFlush() : null;");
+                if (payload instanceof String report) {
+                    collector.report(report);
+                }
+            } catch (RuntimeException e) {
+                logger.debug("⚠️ Could not flush page metrics: {}", e.getMessage());
+            }
+        }
+        List<JSONObject> pages = new ArrayList<>(collector.pages);
+        if (pages.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Double> budgets = budgets(tags);
+        List<String> violations = new ArrayList<>();
+        for (JSONObject page : pages) {
+            budgets.forEach((metric, limit) -> {
+                double value = page.optDouble(metric, 0);
+                if (value >= limit) {
+                    violations.add(String.format("%s %s=%s exceeds budget <%s", page.optString("url"), metric,
+                            format(value), format(limit)));
+                }
+            });
+            checkRegression(page);
+        }
+
+        record(scenarioName, pages);
+        Allure.addAttachment("Page Performance", "application/json", new JSONArray(pages).toString(2), "json");
+
+        if (violations.isEmpty()) {
+            return null;
+        }
+        String message = "Performance budget exceeded in '" + scenarioName + "': " + String.join("; ", violations);
+        if (FAIL_ON_VIOLATION) {
+            return message;
+        }
+        logger.warn("🐢 {}", message);
+        return null;
+    }
+
+    /**
+     * Collects the budgets from {@code perf.budgets} and the {@code @budget:<metric><<limit>} tags; tags win.
+     */
+    private static Map<String, Double> budgets(Collection<String> tags) {
+        Map<String, Double> budgets = new LinkedHashMap<>();
+        List<String> declarations = new ArrayList<>(List.of(DEFAULT_BUDGETS.split(",")));
+        declarations.addAll(tags);
+        for (String declaration : declarations) {
+            Matcher matcher = BUDGET_TAG.matcher(declaration.trim());
+            if (matcher.matches()) {
+                budgets.put(matcher.group(1), Double.parseDouble(matcher.group(2)));
+            }
+        }
+        return budgets;
+    }
+
+    /**
+     * Logs a regression if the page is much slower than its median across previous runs.
+     */
+    private static void checkRegression(JSONObject page) {
+        Map<String, List<Double>> previous = history().get(historyKey(page.optString("url"), cacheMode()));
+        if (previous == null) {
+            return;
+        }
+        for (String metric : TREND_METRICS) {
+            List<Double> values = previous.get(metric);
+            if (values == null || values.size() < 3) {
+                continue;
+            }
+            double median = median(values);
+            double value = page.optDouble(metric, 0);
+            if (median > 0 && value > median * REGRESSION_RATIO) {
+                logger.warn("📉 {} regressed on {}: {} ms vs median {} ms over the last {} runs",
+                        metric, page.optString("url"), format(value), format(median), values.size());
+            }
+        }
+    }
+
+    /**
+     * Appends the scenario's pages to the trend file, locking it against concurrent forks. Synchronized because
+     * file locks are held per JVM: a second {@code lock()} from a parallel teardown would throw
+     * {@link java.nio.channels.OverlappingFileLockException}.
+     */
+    private static synchronized void record(String scenarioName, List<JSONObject> pages) {
+        StringBuilder lines = new StringBuilder();
+        String now = Instant.now().toString();
+        String cache = cacheMode();
+        for (JSONObject page : pages) {
+            JSONObject line = new JSONObject(page.toMap())
+                    .put("run", LogArchive.runId())
+                    .put("timestamp", now)
+                    .put("scenario", scenarioName)
+                    .put("browser", EnvironmentManager.get("browser", "chrome"))
+                    .put("cache", cache);
+            lines.append(line).append('\n');
+
+            runLoads.computeIfAbsent(historyKey(page.optString("url"), cache), key -> new CopyOnWriteArrayList<>())
+                    .add(page.optDouble("load", 0));
+            AtomicLong[] hits = runCacheHits.computeIfAbsent(cache, key -> new AtomicLong[]{new AtomicLong(), new AtomicLong()});
+            hits[0].addAndGet(page.optLong("cacheHits"));
+            hits[1].addAndGet(page.optLong("responses"));
+        }
+        try {
+            if (TREND_FILE.getParent() != null) {
+                Files.createDirectories(TREND_FILE.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(TREND_FILE,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                 FileLock ignored = channel.lock()) {
+                channel.write(ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8)));
+            }
+        } catch (IOException e) {
+            logger.error("❌ Failed to update performance trends: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Loads the trend metrics of previous runs once per JVM: url -> metric -> the last {@code perf.trend.window} values.
+     */
+    private static synchronized Map<String, Map<String, List<Double>>> history() {
+        if (history != null) {
+            return history;
+        }
+        history = new HashMap<>();
+        if (!Files.exists(TREND_FILE)) {
+            return history;
+        }
+        String currentRun = LogArchive.runId();
+        try (BufferedReader reader = Files.newBufferedReader(TREND_FILE, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JSONObject entry;
+                try {
+                    entry = new JSONObject(line);
+                } catch (RuntimeException e) {
+                    continue;
+                }
+                if (currentRun.equals(entry.optString("run"))) {
+                    continue;
+                }
+                Map<String, List<Double>> metrics = history.computeIfAbsent(
+                        historyKey(entry.optString("url"), entry.optString("cache", "off")), key -> new HashMap<>());
+                for (String metric : TREND_METRICS) {
+                    List<Double> values = metrics.computeIfAbsent(metric, m -> new ArrayList<>());
+                    values.add(entry.optDouble(metric, 0));
+                    if (values.size() > TREND_WINDOW) {
+                        values.remove(0);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("⚠️ Could not read performance trends: {}", e.getMessage());
+        }
+        return history;
+    }
+
+    /**
+     * Logs, per cache mode used in this run, the disk cache hit rate and the median load time of the visited pages
+     * against the same pages in previous runs with the other cache mode.
+     */
+    private static void reportCacheEffect() {
+        runCacheHits.forEach((mode, hits) -> {
+            String other = mode.equals("on") ? "off" : "on";
+            List<Double> current = new ArrayList<>();
+            List<Double> previous = new ArrayList<>();
+            runLoads.forEach((key, loads) -> {
+                if (!key.endsWith(" " + mode)) {
+                    return;
+                }
+                String url = key.substring(0, key.length() - mode.length() - 1);
+                current.add(median(loads));
+                Map<String, List<Double>> otherRuns = history().get(historyKey(url, other));
+                if (otherRuns != null && otherRuns.get("load") != null && !otherRuns.get("load").isEmpty()) {
+                    previous.add(median(otherRuns.get("load")));
+                }
+            });
+            if (current.isEmpty()) {
+                return;
+            }
+            long responses = hits[1].get();
+            logger.info("🗄️ Cache {}: disk cache hits {} of {} responses ({}%), median page load {} ms{}", mode,
+                    hits[0].get(), responses, responses == 0 ? 0 : hits[0].get() * 100 / responses,
+                    format(Math.round(median(current))), previous.isEmpty() ? " (no previous runs with cache " + other + ")"
+                            : " vs " + format(Math.round(median(previous))) + " ms with cache " + other
+                            + " in previous runs (" + previous.size() + " of " + current.size() + " pages)");
+        });
+    }
+
+    private static String cacheMode() {
+        return BrowserCache.isEnabled(EnvironmentManager.get("browser", "chrome")) ? "on" : "off";
+    }
+
+    private static String historyKey(String url, String cacheMode) {
+        return url + " " + cacheMode;
+    }
+
+    private static double median(List<Double> values) {
+        List<Double> sorted = values.stream().sorted().toList();
+        int middle = sorted.size() / 2;
+        return sorted.size() % 2 == 1 ? sorted.get(middle) : (sorted.get(middle - 1) + sorted.get(middle)) / 2;
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.format("%.3f", value);
+    }
+}
@@ -0,0 +1,265 @@
+package utils;
+
+import io.qameta.allure.Allure;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Samples the browser and driver processes behind each WebDriver session on Linux and reports per-scenario peaks.
+ * <p>
+ * When a local session is launched, its browser process is located (Firefox reports {@code moz:processID}; Chrome
+ * and Edge are found by their {@code --user-data-dir}), and the tree rooted at its driver process
+ * ({@code chromedriver}, {@code msedgedriver}, {@code geckodriver}) is sampled every {@code monitor.interval.ms}
+ * from {@code /proc}: memory (PSS, so pages shared between the processes count once), CPU and open file
+ * descriptors, summed over all processes of the tree.
+ * The scenario's peaks are logged and attached to the Allure report.
+ * <p>
+ * Sessions above {@code monitor.memory.ceiling.mb} are flagged while they run; pooled host browsers
+ * (see {@code driver.BrowserContextPool}) above the ceiling are recycled between scenarios via
+ * {@link #exceedsCeiling(ProcessHandle)}. Remote sessions and non-Linux hosts are not monitored.
+ */
+public class ProcessMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessMonitor.class);
+
+    private static final boolean ENABLED = Boolean.parseBoolean(EnvironmentManager.get("monitor.enabled", "true"))
+            && Files.isDirectory(Paths.get("/proc/self"));
+    private static final long INTERVAL_MS = Long.parseLong(EnvironmentManager.get("monitor.interval.ms", "1000"));
+    private static final long CEILING_MB = Long.parseLong(EnvironmentManager.get("monitor.memory.ceiling.mb", "2048"));
+
+    /** USER_HZ, the unit of the CPU times in {@code /proc/<pid>/stat}; 100 on all mainstream Linux builds. */
+    private static final double CLOCK_TICKS_PER_SECOND = 100.0;
+
+    private static final Set<Session> active = ConcurrentHashMap.newKeySet();
+    private static final ThreadLocal<Session> sessions = new ThreadLocal<>();
+    private static ScheduledExecutorService sampler;
+
+    /**
+     * Peak resource figures of one scenario's browser process tree.
+     *
+     * @param peakPssMb      highest combined proportional set size
+     * @param peakCpuPercent highest combined CPU usage between two samples, in percent of one core
+     * @param peakFds        highest combined number of open file descriptors
+     * @param peakProcesses  highest number of processes in the tree
+     * @param samples        number of samples taken
+     * @param shared         whether the tree is a pooled host shared with other scenarios
+     */
+    public record Usage(long peakPssMb, double peakCpuPercent, long peakFds, int peakProcesses, int samples,
+                        boolean shared) {
+
+        @Override
+        public String toString() {
+            return String.format("PSS %d MB, CPU %.0f%%, fds %d, processes %d (%d samples%s)", peakPssMb,
+                    peakCpuPercent, peakFds, peakProcesses, samples, shared ? ", host shared with other scenarios" : "");
+        }
+    }
+
+    /**
+     * A monitored process tree and its peaks since tracking started.
+     */
+    private static final class Session {
+        private final ProcessHandle root;
+        private final boolean shared;
+        private final Map<Long, Long> lastTicks = new HashMap<>();
+        private long lastSampleNanos;
+        private long peakPssKb;
+        private double peakCpuPercent;
+        private long peakFds;
+        private int peakProcesses;
+        private int samples;
+        private boolean overCeiling;
+
+        private Session(ProcessHandle root, boolean shared) {
+            this.root = root;
+            this.shared = shared;
+        }
+
+        synchronized void sample() {
+            if (!root.isAlive()) {
+                return;
+            }
+            long now = System.nanoTime();
+            List<ProcessHandle> tree = Stream.concat(Stream.of(root), root.descendants()).toList();
+            long pssKb = 0;
+            long fds = 0;
+            long ticks = 0;
+            Map<Long, Long> currentTicks = new HashMap<>();
+            for (ProcessHandle process : tree) {
+                pssKb += Math.max(0, SystemResources.processPssKb(process.pid()));
+                fds += Math.max(0, SystemResources.openFileDescriptors(process.pid()));
+                long total = SystemResources.processCpuTicks(process.pid());
+                if (total >= 0) {
+                    currentTicks.put(process.pid(), total);
+                    // Processes started since the last sample count with all their CPU time
+                    ticks += Math.max(0, total - lastTicks.getOrDefault(process.pid(), 0L));
+                }
+            }
+            if (lastSampleNanos > 0) {
+                double seconds = (now - lastSampleNanos) / 1e9;
+                peakCpuPercent = Math.max(peakCpuPercent, ticks / CLOCK_TICKS_PER_SECOND / seconds * 100);
+            }
+            lastTicks.clear();
+            lastTicks.putAll(currentTicks);
+            lastSampleNanos = now;
+            peakPssKb = Math.max(peakPssKb, pssKb);
+            peakFds = Math.max(peakFds, fds);
+            peakProcesses = Math.max(peakProcesses, tree.size());
+            samples++;
+
+            if (!overCeiling && CEILING_MB > 0 && pssKb / 1024 > CEILING_MB) {
+                overCeiling = true;
+                logger.warn("🐘 Browser process tree {} uses {} MB, above the {} MB ceiling", root.pid(),
+                        pssKb / 1024, CEILING_MB);
+            }
+        }
+
+        synchronized Usage usage() {
+            return new Usage(peakPssKb / 1024, peakCpuPercent, peakFds, peakProcesses, samples, shared);
+        }
+    }
+
+    /**
+     * Starts monitoring the processes of a freshly launched local session for the current thread's scenario.
+     *
+     * @param driver the launched WebDriver (before any decoration)
+     */
+    public static void track(WebDriver driver) {
+        if (!ENABLED || !(driver instanceof HasCapabilities hasCapabilities)) {
+            return;
+        }
+        browserProcess(hasCapabilities.getCapabilities()).ifPresentOrElse(
+                browser -> track(browser, false),
+                () -> logger.debug("⚠️ Browser process not found; session is not monitored"));
+    }
+
+    /**
+     * Starts monitoring the given browser's process tree for the current thread's scenario.
+     *
+     * @param browser the browser's main process
+     * @param shared  whether the browser also serves other scenarios (e.g., a pooled host)
+     */
+    public static void track(ProcessHandle browser, boolean shared) {
+        if (!ENABLED || browser == null) {
+            return;
+        }
+        untrack();
+        Session session = new Session(treeRoot(browser), shared);
+        session.sample();
+        sessions.set(session);
+        active.add(session);
+        startSampler();
+    }
+
+    /**
+     * Stops monitoring the current thread's session, logs its peaks and attaches them to the Allure report.
+     *
+     * @param scenarioName the scenario name used in the log and attachment
+     * @return the peaks, if the current thread's session was monitored
+     */
+    public static Optional<Usage> finish(String scenarioName) {
+        Session session = sessions.get();
+        if (session == null) {
+            return Optional.empty();
+        }
+        untrack();
+        session.sample();
+        Usage usage = session.usage();
+        logger.info("📈 Peak browser resources for '{}': {}", scenarioName, usage);
+        Allure.addAttachment("Browser process resources", "text/plain", usage.toString());
+        return Optional.of(usage);
+    }
+
+    /**
+     * Stops monitoring the current thread's session without reporting.
+     */
+    public static void untrack() {
+        Session session = sessions.get();
+        if (session != null) {
+            sessions.remove();
+            active.remove(session);
+        }
+    }
+
+    /**
+     * Tells whether a browser's process tree currently uses more memory than {@code monitor.memory.ceiling.mb}.
+     *
+     * @param browser the browser's main process; may be null
+     * @return true if the ceiling is set and exceeded
+     */
+    public static boolean exceedsCeiling(ProcessHandle browser) {
+        if (!ENABLED || CEILING_MB <= 0 || browser == null) {
+            return false;
+        }
+        return SystemResources.processTreePssMb(treeRoot(browser)) > CEILING_MB;
+    }
+
+    /**
+     * Returns the memory ceiling in megabytes, or 0 if recycling is disabled.
+     *
+     * @return {@code monitor.memory.ceiling.mb}
+     */
+    public static long ceilingMb() {
+        return CEILING_MB;
+    }
+
+    /**
+     * Finds the browser's main process from the session capabilities.
+     */
+    private static Optional<ProcessHandle> browserProcess(Capabilities capabilities) {
+        if (capabilities.getCapability("moz:processID") instanceof Number pid) {
+            return ProcessHandle.of(pid.longValue());
+        }
+        for (String key : new String[]{"chrome", "msedge"}) {
+            if (capabilities.getCapability(key) instanceof Map<?, ?> info && info.get("userDataDir") != null) {
+                return SystemResources.findProcessByArgument("--user-data-dir=" + info.get("userDataDir"));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Widens a browser process to its driver process, so both are sampled as one tree.
+     */
+    private static ProcessHandle treeRoot(ProcessHandle browser) {
+        return browser.parent()
+                .filter(parent -> parent.info().command().map(c -> c.endsWith("driver")).orElse(false))
+                .orElse(browser);
+    }
+
+    private static synchronized void startSampler() {
+        if (sampler != null) {
+            return;
+        }
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "process-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleWithFixedDelay(() -> {
+            for (Session session : active) {
+                try {
+                    session.sample();
+                } catch (RuntimeException e) {
+                    logger.debug("⚠️ Process sample failed: {}", e.getMessage());
+                }
+            }
+        }, INTERVAL_MS, INTERVAL_MS, TimeUnit.MILLISECONDS);
+        logger.info("📈 Browser process monitor sampling every {} ms (memory ceiling: {} MB)", INTERVAL_MS, CEILING_MB);
+    }
+}
@@ -0,0 +1,216 @@
+package utils;
+
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live progress of the current test JVM, fed by {@code Hooks} and {@code DriverFactory}.
+ * <p>
+ * Counters are {@link LongAdder}s so parallel workers never contend on updates. A snapshot (scenarios/sec, running
+ * and finished counts, failures, active browsers per type, launch queue depth, average session start time and ETA)
+ * is written every {@code progress.interval.seconds} to {@code progress.file} (one file per JVM; {@code {pid}} is
+ * replaced with the process id; disable with {@code progress.file.enabled=false}) and, if {@code progress.http.port} is set, served as JSON on
+ * {@code http://localhost:<port>/status} (use 0 for a random port, -1 to disable).
+ */
+public class RunProgress {
+
+    private static final Logger logger = LoggerFactory.getLogger(RunProgress.class);
+
+    private static final boolean FILE_ENABLED = Boolean.parseBoolean(EnvironmentManager.get("progress.file.enabled", "true"));
+    private static final String FILE = EnvironmentManager.get("progress.file", "build/progress/status-{pid}.json");
+    private static final long INTERVAL_SECONDS = Long.parseLong(EnvironmentManager.get("progress.interval.seconds", "5"));
+    private static final int HTTP_PORT = Integer.parseInt(EnvironmentManager.get("progress.http.port", "-1"));
+
+    private static final LongAdder planned = new LongAdder();
+    private static final LongAdder started = new LongAdder();
+    private static final LongAdder finished = new LongAdder();
+    private static final LongAdder failed = new LongAdder();
+    private static final LongAdder launchQueue = new LongAdder();
+    private static final LongAdder sessionsStarted = new LongAdder();
+    private static final LongAdder sessionStartNanos = new LongAdder();
+    private static final Map<String, LongAdder> activeBrowsers = new ConcurrentHashMap<>();
+    private static final ThreadLocal<String> threadBrowser = new ThreadLocal<>();
+    private static final AtomicLong firstScenarioNanos = new AtomicLong();
+    private static final long startNanos = System.nanoTime();
+
+    private static ScheduledExecutorService writer;
+    private static HttpServer server;
+
+    /**
+     * Starts the periodic status file and optional HTTP endpoint. Safe to call more than once.
+     */
+    public static synchronized void start() {
+        if (writer != null) {
+            return;
+        }
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "run-progress");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (FILE_ENABLED) {
+            writer.scheduleAtFixedRate(RunProgress::writeFile, INTERVAL_SECONDS, INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+        if (HTTP_PORT >= 0) {
+            startServer();
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(RunProgress::writeFile, "run-progress-final"));
+    }
+
+    /**
+     * Adds scenarios to the number expected in this JVM, used for the ETA.
+     *
+     * @param count number of scenarios discovered
+     */
+    public static void addPlanned(long count) {
+        planned.add(count);
+    }
+
+    /**
+     * Records a started scenario.
+     */
+    public static void scenarioStarted() {
+        firstScenarioNanos.compareAndSet(0, System.nanoTime());
+        started.increment();
+    }
+
+    /**
+     * Records a finished scenario.
+     *
+     * @param isFailed whether the scenario failed
+     */
+    public static void scenarioFinished(boolean isFailed) {
+        finished.increment();
+        if (isFailed) {
+            failed.increment();
+        }
+    }
+
+    /**
+     * Records a thread starting to wait for memory headroom or a browser permit.
+     */
+    public static void launchQueued() {
+        launchQueue.increment();
+    }
+
+    /**
+     * Records a thread no longer waiting to launch a browser.
+     */
+    public static void launchDequeued() {
+        launchQueue.decrement();
+    }
+
+    /**
+     * Records a browser session launched on the current thread.
+     *
+     * @param browserType the browser type (e.g., "CHROME")
+     * @param nanos       time taken to start the session
+     */
+    public static void sessionStarted(String browserType, long nanos) {
+        sessionsStarted.increment();
+        sessionStartNanos.add(nanos);
+        activeBrowsers.computeIfAbsent(browserType, type -> new LongAdder()).increment();
+        threadBrowser.set(browserType);
+    }
+
+    /**
+     * Records the end of the browser session launched on the current thread, if any.
+     */
+    public static void sessionEnded() {
+        String browserType = threadBrowser.get();
+        if (browserType != null) {
+            threadBrowser.remove();
+            activeBrowsers.get(browserType).decrement();
+        }
+    }
+
+    /**
+     * Returns the current progress snapshot.
+     *
+     * @return the status as JSON
+     */
+    public static JSONObject snapshot() {
+        long now = System.nanoTime();
+        long done = finished.sum();
+        long total = planned.sum();
+        long first = firstScenarioNanos.get();
+        double activeSeconds = first == 0 ? 0 : (now - first) / 1e9;
+        double rate = activeSeconds > 0 ? done / activeSeconds : 0;
+        long sessions = sessionsStarted.sum();
+
+        JSONObject browsers = new JSONObject();
+        activeBrowsers.forEach((type, count) -> browsers.put(type, count.sum()));
+
+        JSONObject status = new JSONObject()
+                .put("pid", ProcessHandle.current().pid())
+                .put("updatedAt", Instant.now().toString())
+                .put("elapsedSeconds", TimeUnit.NANOSECONDS.toSeconds(now - startNanos))
+                .put("planned", total)
+                .put("running", started.sum() - done)
+                .put("finished", done)
+                .put("failed", failed.sum())
+                .put("scenariosPerSecond", Math.round(rate * 100) / 100.0)
+                .put("activeBrowsers", browsers)
+                .put("launchQueue", launchQueue.sum())
+                .put("sessionsStarted", sessions)
+                .put("avgSessionStartMs", sessions == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(sessionStartNanos.sum() / sessions));
+        if (rate > 0 && total > done) {
+            status.put("etaSeconds", Math.round((total - done) / rate));
+        }
+        return status;
+    }
+
+    private static void writeFile() {
+        if (!FILE_ENABLED) {
+            return;
+        }
+        try {
+            Path file = Paths.get(FILE.replace("{pid}", String.valueOf(ProcessHandle.current().pid())));
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            Files.writeString(temp, snapshot().toString(2), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.debug("⚠️ Could not write progress file: {}", e.getMessage());
+        }
+    }
+
+    private static void startServer() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", HTTP_PORT), 0);
+            server.createContext("/status", exchange -> {
+                byte[] body = snapshot().toString(2).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream output = exchange.getResponseBody()) {
+                    output.write(body);
+                }
+            });
+            server.setExecutor(writer);
+            server.start();
+            logger.info("📊 Live progress at http://localhost:{}/status", server.getAddress().getPort());
+        } catch (IOException e) {
+            logger.warn("⚠️ Could not start progress endpoint on port {}: {}", HTTP_PORT, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package utils;
+
+import ch.qos.logback.classic.PatternLayout;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import io.qameta.allure.Allure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logback appender that sifts framework log events by the {@code scenarioId} MDC key into one in-memory buffer
+ * per scenario, then forwards every event to its attached appenders (normally the asynchronous console).
+ * <p>
+ * Buffering keeps a reference to the event after {@link ILoggingEvent#prepareForDeferredProcessing()}, which
+ * formats its message and snapshots the MDC and thread name. The console appenders need that formatted message
+ * anyway and reuse the cached copy, so a passing scenario costs no extra formatting and no I/O: the buffer is only
+ * rendered with {@code pattern} and attached to Allure when the scenario fails. Events logged outside a
+ * scenario (e.g., on CDP listener threads, which carry no MDC) are forwarded unchanged.
+ * <p>
+ * The time worker threads spend inside the logging pipeline is measured per scenario and logged by
+ * {@link #finish(String, boolean)}, so the synchronous console ({@code -Dlog.console.appender=CONSOLE}) can be
+ * compared with the asynchronous one (the default).
+ */
+public class ScenarioLogAppender extends UnsynchronizedAppenderBase<ILoggingEvent> implements AppenderAttachable<ILoggingEvent> {
+
+    public static final String MDC_KEY = "scenarioId";
+
+    private static final Map<String, ScenarioBuffer> buffers = new ConcurrentHashMap<>();
+    private static volatile PatternLayout layout;
+
+    private final AppenderAttachableImpl<ILoggingEvent> downstream = new AppenderAttachableImpl<>();
+    private String pattern = "%d{HH:mm:ss.SSS} %-5level %logger{36} - %msg%n";
+    private int maxEvents = 5000;
+
+    /**
+     * Events and logging cost collected for one scenario.
+     */
+    private static final class ScenarioBuffer {
+        private final Deque<ILoggingEvent> events = new ArrayDeque<>();
+        private final LongAdder eventCount = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private int dropped;
+    }
+
+    /**
+     * Starts collecting the framework log of a scenario. Call after putting the id into the MDC.
+     *
+     * @param scenarioId the scenario key used as {@value #MDC_KEY} MDC value
+     */
+    public static void begin(String scenarioId) {
+        buffers.put(scenarioId, new ScenarioBuffer());
+    }
+
+    /**
+     * Stops collecting the framework log of a scenario, logs the logging overhead it incurred and,
+     * if requested, attaches the collected log to the Allure report.
+     *
+     * @param scenarioId the scenario key
+     * @param attach     whether to attach the log (typically only for failed scenarios)
+     */
+    public static void finish(String scenarioId, boolean attach) {
+        ScenarioBuffer buffer = buffers.remove(scenarioId);
+        if (buffer == null) {
+            return;
+        }
+        // Looked up lazily: this class is loaded while logback is still being configured
+        Logger logger = LoggerFactory.getLogger(ScenarioLogAppender.class);
+        logger.info("📝 Logging overhead for {}: {} events, {} ms on the worker thread",
+                scenarioId, buffer.eventCount.sum(), TimeUnit.NANOSECONDS.toMillis(buffer.nanos.sum()));
+
+        PatternLayout current = layout;
+        if (!attach || current == null) {
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        synchronized (buffer) {
+            if (buffer.dropped > 0) {
+                text.append("... ").append(buffer.dropped).append(" earlier events dropped ...\n");
+            }
+            for (ILoggingEvent event : buffer.events) {
+                text.append(current.doLayout(event));
+            }
+        }
+        Allure.addAttachment("Framework Log", "text/plain",
+                new ByteArrayInputStream(text.toString().getBytes(StandardCharsets.UTF_8)), ".log");
+    }
+
+    public void setPattern(String pattern) {
+        this.pattern = pattern;
+    }
+
+    public void setMaxEvents(int maxEvents) {
+        this.maxEvents = maxEvents;
+    }
+
+    @Override
+    public void start() {
+        PatternLayout patternLayout = new PatternLayout();
+        patternLayout.setContext(getContext());
+        patternLayout.setPattern(pattern);
+        patternLayout.start();
+        layout = patternLayout;
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        super.stop();
+        // Attached appenders are not referenced by any logger, so the context would not stop (and drain) them
+        downstream.iteratorForAppenders().forEachRemaining(Appender::stop);
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        String scenarioId = event.getMDCPropertyMap().get(MDC_KEY);
+        ScenarioBuffer buffer = scenarioId == null ? null : buffers.get(scenarioId);
+        long start = System.nanoTime();
+
+        if (buffer != null) {
+            // Arguments may change after this call returns; the formatted message is cached for the console too
+            event.prepareForDeferredProcessing();
+            synchronized (buffer) {
+                if (buffer.events.size() >= maxEvents) {
+                    buffer.events.removeFirst();
+                    buffer.dropped++;
+                }
+                buffer.events.addLast(event);
+            }
+        }
+        downstream.appendLoopOnAppenders(event);
+
+        if (buffer != null) {
+            buffer.eventCount.increment();
+            buffer.nanos.add(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        downstream.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return downstream.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return downstream.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return downstream.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        downstream.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return downstream.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return downstream.detachAppender(name);
+    }
+}
@@ -0,0 +1,230 @@
+package utils;
+
+import io.qameta.allure.Allure;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Enforces a hard time budget per scenario.
+ * <p>
+ * The budget comes from a {@code @timeout:<n>[ms|s|m]} tag (e.g. {@code @timeout:60s}) or from
+ * {@code scenario.timeout.seconds} (0 disables the watchdog). When a scenario exceeds it, the watchdog thread
+ * captures a screenshot if the browser still responds, interrupts the worker thread and force-closes the browser
+ * session so a hung command fails instead of holding the worker (and a Grid slot) until the CI timeout.
+ * {@link #finish()} then attaches the screenshot and reports the overrun; scenarios that used more than
+ * {@code scenario.timeout.warn.ratio} of their budget are listed at JVM exit.
+ */
+public class ScenarioWatchdog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScenarioWatchdog.class);
+
+    private static final long DEFAULT_BUDGET_MS = TimeUnit.SECONDS.toMillis(Long.parseLong(EnvironmentManager.get("scenario.timeout.seconds", "300")));
+    private static final double WARN_RATIO = Double.parseDouble(EnvironmentManager.get("scenario.timeout.warn.ratio", "0.8"));
+    private static final long RECLAIM_TIMEOUT_SECONDS = 15;
+    private static final Pattern TIMEOUT_TAG = Pattern.compile("@timeout:(\\d+)(ms|s|m)?");
+
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(daemon("scenario-watchdog"));
+    private static final ExecutorService reclaimer = Executors.newCachedThreadPool(daemon("scenario-watchdog-reclaim"));
+
+    private static final ThreadLocal<Watch> watches = new ThreadLocal<>();
+    private static final ConcurrentLinkedQueue<NearMiss> nearMisses = new ConcurrentLinkedQueue<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ScenarioWatchdog::report, "scenario-watchdog-report"));
+    }
+
+    /**
+     * A running scenario under watch.
+     */
+    private static final class Watch {
+        private final String scenarioName;
+        private final long budgetMs;
+        private final long startNanos = System.nanoTime();
+        private boolean expired;
+        private boolean finished;
+        private volatile byte[] screenshot;
+        private ScheduledFuture<?> timeout;
+
+        private Watch(String scenarioName, long budgetMs) {
+            this.scenarioName = scenarioName;
+            this.budgetMs = budgetMs;
+        }
+    }
+
+    /**
+     * A scenario that finished within, but close to, its budget.
+     */
+    private record NearMiss(String scenarioName, long elapsedMs, long budgetMs) {
+    }
+
+    /**
+     * Starts watching the scenario running on the current thread.
+     *
+     * @param scenarioName the scenario name
+     * @param tags         the scenario's tags, searched for {@code @timeout:...}
+     * @param session      returns the scenario's launched browser session, or null if none was launched
+     */
+    public static void start(String scenarioName, Collection<String> tags, Supplier<WebDriver> session) {
+        long budgetMs = budgetMs(tags);
+        if (budgetMs <= 0) {
+            return;
+        }
+        Watch watch = new Watch(scenarioName, budgetMs);
+        Thread worker = Thread.currentThread();
+        // Reclaiming can block on the browser, so it runs off the timer thread to keep other budgets on time
+        watch.timeout = timer.schedule(() -> reclaimer.execute(() -> expire(watch, worker, session)),
+                budgetMs, TimeUnit.MILLISECONDS);
+        watches.set(watch);
+    }
+
+    /**
+     * Stops watching the current thread's scenario. Clears the interrupt raised by the watchdog so teardown can
+     * run normally, attaches the screenshot taken at expiry and records scenarios that came close to their budget.
+     *
+     * @return a description of the overrun if the scenario exceeded its budget, otherwise null
+     */
+    public static String finish() {
+        Watch watch = watches.get();
+        if (watch == null) {
+            return null;
+        }
+        watches.remove();
+        watch.timeout.cancel(false);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - watch.startNanos);
+
+        // Waits for a running expiry to complete, so its interrupt cannot leak into later work on this thread
+        boolean expired;
+        synchronized (watch) {
+            watch.finished = true;
+            expired = watch.expired;
+        }
+
+        if (!expired) {
+            if (elapsedMs >= watch.budgetMs * WARN_RATIO) {
+                nearMisses.add(new NearMiss(watch.scenarioName, elapsedMs, watch.budgetMs));
+                logger.warn("⏱️ Scenario '{}' used {} of its {} ms budget", watch.scenarioName,
+                        String.format("%.0f%%", 100.0 * elapsedMs / watch.budgetMs), watch.budgetMs);
+            }
+            return null;
+        }
+
+        Thread.interrupted();
+        byte[] screenshot = watch.screenshot;
+        if (screenshot != null) {
+            Allure.addAttachment("Screenshot at timeout - " + watch.scenarioName, new ByteArrayInputStream(screenshot));
+        }
+        return "Scenario '" + watch.scenarioName + "' exceeded its time budget of " + watch.budgetMs + " ms";
+    }
+
+    /**
+     * Resolves the scenario's budget from its {@code @timeout} tag or the configured default.
+     */
+    private static long budgetMs(Collection<String> tags) {
+        for (String tag : tags) {
+            Matcher matcher = TIMEOUT_TAG.matcher(tag);
+            if (matcher.matches()) {
+                long value = Long.parseLong(matcher.group(1));
+                String unit = matcher.group(2) == null ? "s" : matcher.group(2);
+                return switch (unit) {
+                    case "ms" -> value;
+                    case "m" -> TimeUnit.MINUTES.toMillis(value);
+                    default -> TimeUnit.SECONDS.toMillis(value);
+                };
+            }
+        }
+        return DEFAULT_BUDGET_MS;
+    }
+
+    /**
+     * Runs on the watchdog thread when a scenario's budget is exhausted.
+     */
+    private static void expire(Watch watch, Thread worker, Supplier<WebDriver> session) {
+        synchronized (watch) {
+            if (watch.finished) {
+                return;
+            }
+            watch.expired = true;
+            reclaim(watch, worker, session);
+        }
+    }
+
+    /**
+     * Captures a screenshot, interrupts the worker and closes the browser session of an expired scenario.
+     */
+    private static void reclaim(Watch watch, Thread worker, Supplier<WebDriver> session) {
+        logger.error("⏱️ Scenario '{}' exceeded its {} ms budget – reclaiming worker {}",
+                watch.scenarioName, watch.budgetMs, worker.getName());
+
+        WebDriver driver = session.get();
+        if (driver instanceof TakesScreenshot ts) {
+            watch.screenshot = withTimeout(() -> ts.getScreenshotAs(OutputType.BYTES), "capture screenshot");
+        }
+
+        worker.interrupt();
+
+        if (driver != null) {
+            withTimeout(() -> {
+                driver.quit();
+                return null;
+            }, "close session");
+            logger.warn("🛑 Force-closed the browser session of '{}'", watch.scenarioName);
+        }
+    }
+
+    /**
+     * Runs a browser call that may itself hang, giving up after a bounded time.
+     */
+    private static <T> T withTimeout(Callable<T> action, String description) {
+        Future<T> future = reclaimer.submit(action);
+        try {
+            return future.get(RECLAIM_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            future.cancel(true);
+            logger.warn("⚠️ Watchdog could not {}: {}", description, e.getMessage());
+            return null;
+        }
+    }
+
+    private static void report() {
+        if (nearMisses.isEmpty()) {
+            return;
+        }
+        List<NearMiss> sorted = nearMisses.stream()
+                .sorted(Comparator.comparingDouble((NearMiss n) -> (double) n.elapsedMs() / n.budgetMs()).reversed())
+                .toList();
+        StringBuilder report = new StringBuilder("⏱️ Scenarios close to their time budget:");
+        for (NearMiss miss : sorted) {
+            report.append(String.format("%n  %3.0f%%  %6d / %d ms  %s",
+                    100.0 * miss.elapsedMs() / miss.budgetMs(), miss.elapsedMs(), miss.budgetMs(), miss.scenarioName()));
+        }
+        logger.warn(report.toString());
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
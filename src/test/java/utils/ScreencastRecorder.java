@@ -0,0 +1,271 @@
+package utils;
+
+import io.qameta.allure.Allure;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.v138.page.Page;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Keeps the last few seconds of a Chrome/Edge session as low-resolution CDP screencast frames, and turns them into
+ * an animated GIF attachment only when the scenario fails.
+ * <p>
+ * Frames from {@code Page.startScreencast} are copied as JPEG bytes into a fixed-size ring buffer, allocated off-heap
+ * and pooled across sessions, so memory per browser is capped at {@code screencast.buffer.kb} no matter how long
+ * a scenario runs. Frames older than {@code screencast.seconds} or overwritten by newer frames are dropped.
+ * Green scenarios only return the buffer to the pool; decoding and GIF encoding happen on failure only.
+ */
+public class ScreencastRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScreencastRecorder.class);
+
+    private static final boolean ENABLED = Boolean.parseBoolean(EnvironmentManager.get("screencast.enabled", "true"));
+    private static final long WINDOW_MS = Long.parseLong(EnvironmentManager.get("screencast.seconds", "10")) * 1000;
+    private static final int BUFFER_BYTES = Integer.parseInt(EnvironmentManager.get("screencast.buffer.kb", "3072")) * 1024;
+    private static final int MAX_WIDTH = Integer.parseInt(EnvironmentManager.get("screencast.max.width", "640"));
+    private static final int MAX_HEIGHT = Integer.parseInt(EnvironmentManager.get("screencast.max.height", "480"));
+    private static final int QUALITY = Integer.parseInt(EnvironmentManager.get("screencast.quality", "40"));
+    private static final int EVERY_NTH_FRAME = Integer.parseInt(EnvironmentManager.get("screencast.every.nth.frame", "2"));
+
+    /** Minimum GIF frame delay; browsers treat shorter delays inconsistently. */
+    private static final int MIN_DELAY_CENTIS = 2;
+
+    private static final ConcurrentLinkedQueue<ByteBuffer> pool = new ConcurrentLinkedQueue<>();
+    private static final ThreadLocal<FrameRing> rings = new ThreadLocal<>();
+
+    /**
+     * A frame's position in the ring buffer.
+     */
+    record Frame(int offset, int length, long timestampMs) {
+    }
+
+    /**
+     * Circular byte buffer holding the most recent JPEG frames of one session.
+     */
+    static final class FrameRing {
+        private final ByteBuffer buffer;
+        private final ArrayDeque<Frame> frames = new ArrayDeque<>();
+        private int head;
+        private long received;
+        private boolean closed;
+
+        FrameRing(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        synchronized void append(byte[] jpeg, long timestampMs) {
+            if (closed) {
+                return;
+            }
+            received++;
+            int length = jpeg.length;
+            if (length > buffer.capacity()) {
+                return;
+            }
+            if (head + length > buffer.capacity()) {
+                // Frames are stored contiguously, so the skipped tail holds the oldest frames: drop them before
+                // wrapping, or they would stay listed while the frames written at offset 0 get overwritten
+                int tail = head;
+                frames.removeIf(frame -> frame.offset() >= tail);
+                head = 0;
+            }
+            int start = head;
+            frames.removeIf(frame -> overlaps(frame, start, length));
+            while (!frames.isEmpty() && frames.peekFirst().timestampMs() < timestampMs - WINDOW_MS) {
+                frames.removeFirst();
+            }
+            buffer.put(head, jpeg);
+            frames.addLast(new Frame(head, length, timestampMs));
+            head += length;
+        }
+
+        synchronized List<byte[]> drain(List<Long> timestamps) {
+            List<byte[]> copies = new ArrayList<>(frames.size());
+            for (Frame frame : frames) {
+                byte[] jpeg = new byte[frame.length()];
+                buffer.get(frame.offset(), jpeg);
+                copies.add(jpeg);
+                timestamps.add(frame.timestampMs());
+            }
+            return copies;
+        }
+
+        synchronized void close() {
+            closed = true;
+            frames.clear();
+        }
+
+        private static boolean overlaps(Frame frame, int offset, int length) {
+            return frame.offset() < offset + length && offset < frame.offset() + frame.length();
+        }
+    }
+
+    /**
+     * Starts recording the given browser's viewport for the current thread's scenario. Does nothing if the
+     * screencast is disabled or the driver does not support DevTools.
+     *
+     * @param driver the launched WebDriver
+     */
+    public static void start(WebDriver driver) {
+        if (!ENABLED || !(driver instanceof HasDevTools hasDevTools)) {
+            return;
+        }
+        try {
+            DevTools tools = hasDevTools.getDevTools();
+            if (tools.getCdpSession() == null) {
+                tools.createSession();
+            }
+            ByteBuffer buffer = pool.poll();
+            FrameRing ring = new FrameRing(buffer != null ? buffer : ByteBuffer.allocateDirect(BUFFER_BYTES));
+            rings.set(ring);
+
+            tools.addListener(Page.screencastFrame(), frame -> {
+                // Chrome sends the next frame only after the previous one is acknowledged
+                tools.send(Page.screencastFrameAck(frame.getSessionId()));
+                long timestampMs = frame.getMetadata().getTimestamp()
+                        .map(t -> (long) (t.toJson().doubleValue() * 1000))
+                        .orElse(System.currentTimeMillis());
+                ring.append(Base64.getDecoder().decode(frame.getData()), timestampMs);
+            });
+            tools.send(Page.startScreencast(Optional.of(Page.StartScreencastFormat.JPEG), Optional.of(QUALITY),
+                    Optional.of(MAX_WIDTH), Optional.of(MAX_HEIGHT), Optional.of(EVERY_NTH_FRAME)));
+            logger.debug("🎞️ Screencast ring buffer started ({} KB, last {} s)", BUFFER_BYTES / 1024, WINDOW_MS / 1000);
+        } catch (Exception e) {
+            logger.warn("⚠️ Could not start screencast: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stops recording for the current thread's scenario and, if it failed, attaches the buffered frames to the
+     * Allure report as an animated GIF. The ring buffer is returned to the pool either way.
+     *
+     * @param isFailed     whether the scenario failed
+     * @param scenarioName the scenario name used in the attachment title
+     */
+    public static void finish(boolean isFailed, String scenarioName) {
+        FrameRing ring = rings.get();
+        if (ring == null) {
+            return;
+        }
+        rings.remove();
+        try {
+            if (isFailed) {
+                attach(ring, scenarioName);
+            }
+        } finally {
+            ring.close();
+            pool.offer(ring.buffer);
+        }
+    }
+
+    private static void attach(FrameRing ring, String scenarioName) {
+        List<Long> timestamps = new ArrayList<>();
+        List<byte[]> frames = ring.drain(timestamps);
+        if (frames.isEmpty()) {
+            logger.info("🎞️ No screencast frames buffered for '{}'", scenarioName);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            byte[] gif = encodeGif(frames, timestamps);
+            Allure.addAttachment("Screencast - " + scenarioName, "image/gif", new ByteArrayInputStream(gif), "gif");
+            logger.info("🎞️ Screencast attached: {} of {} frames, {} KB, encoded in {} ms", frames.size(),
+                    ring.received, gif.length / 1024, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            logger.warn("⚠️ Could not encode screencast: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Encodes JPEG frames into a looping GIF, using the frame timestamps for the delays.
+     */
+    private static byte[] encodeGif(List<byte[]> frames, List<Long> timestamps) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("gif").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            writer.prepareWriteSequence(null);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            boolean first = true;
+            for (int i = 0; i < frames.size(); i++) {
+                BufferedImage image;
+                try {
+                    image = ImageIO.read(new ByteArrayInputStream(frames.get(i)));
+                } catch (IOException e) {
+                    // A single truncated frame must not cost the whole attachment
+                    logger.debug("Skipping unreadable screencast frame {}: {}", i, e.getMessage());
+                    continue;
+                }
+                if (image == null) {
+                    continue;
+                }
+                long delayMs = i + 1 < frames.size() ? timestamps.get(i + 1) - timestamps.get(i) : 1000;
+                IIOMetadata metadata = writer.getDefaultImageMetadata(ImageTypeSpecifier.createFromRenderedImage(image), param);
+                configureFrame(metadata, (int) Math.max(MIN_DELAY_CENTIS, delayMs / 10), first);
+                writer.writeToSequence(new IIOImage(image, null, metadata), param);
+                first = false;
+            }
+            writer.endWriteSequence();
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Sets the frame delay and, on the first frame, the NETSCAPE extension that makes the GIF loop.
+     */
+    private static void configureFrame(IIOMetadata metadata, int delayCentis, boolean first) throws IOException {
+        String format = metadata.getNativeMetadataFormatName();
+        IIOMetadataNode root = (IIOMetadataNode) metadata.getAsTree(format);
+
+        IIOMetadataNode control = child(root, "GraphicControlExtension");
+        control.setAttribute("disposalMethod", "none");
+        control.setAttribute("userInputFlag", "FALSE");
+        control.setAttribute("transparentColorFlag", "FALSE");
+        control.setAttribute("delayTime", String.valueOf(delayCentis));
+        control.setAttribute("transparentColorIndex", "0");
+
+        if (first) {
+            IIOMetadataNode extension = new IIOMetadataNode("ApplicationExtension");
+            extension.setAttribute("applicationID", "NETSCAPE");
+            extension.setAttribute("authenticationCode", "2.0");
+            extension.setUserObject(new byte[]{1, 0, 0});
+            child(root, "ApplicationExtensions").appendChild(extension);
+        }
+        metadata.setFromTree(format, root);
+    }
+
+    private static IIOMetadataNode child(IIOMetadataNode parent, String name) {
+        for (int i = 0; i < parent.getLength(); i++) {
+            if (parent.item(i).getNodeName().equalsIgnoreCase(name)) {
+                return (IIOMetadataNode) parent.item(i);
+            }
+        }
+        IIOMetadataNode node = new IIOMetadataNode(name);
+        parent.appendChild(node);
+        return node;
+    }
+}
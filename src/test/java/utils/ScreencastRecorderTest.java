@@ -0,0 +1,62 @@
+package utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that {@link ScreencastRecorder.FrameRing} never lists a frame whose bytes were overwritten.
+ */
+class ScreencastRecorderTest {
+
+    @Test
+    void wrappingEvictsOverwrittenFramesOfMixedSizes() {
+        ScreencastRecorder.FrameRing ring = new ScreencastRecorder.FrameRing(ByteBuffer.allocate(100));
+        int[] sizes = {30, 30, 35, 50, 55, 20, 90, 10, 45, 45};
+
+        for (int i = 0; i < sizes.length; i++) {
+            long timestamp = i + 1;
+            ring.append(frame(sizes[i], timestamp), timestamp);
+            assertIntact(ring, timestamp);
+        }
+    }
+
+    @Test
+    void framesLargerThanTheBufferAreDropped() {
+        ScreencastRecorder.FrameRing ring = new ScreencastRecorder.FrameRing(ByteBuffer.allocate(100));
+        ring.append(frame(40, 1), 1);
+        ring.append(frame(101, 2), 2);
+
+        List<Long> timestamps = new ArrayList<>();
+        assertEquals(1, ring.drain(timestamps).size());
+        assertEquals(List.of(1L), timestamps);
+    }
+
+    /**
+     * Asserts that every listed frame still holds its own bytes, in order, ending with the newest one.
+     */
+    private static void assertIntact(ScreencastRecorder.FrameRing ring, long newest) {
+        List<Long> timestamps = new ArrayList<>();
+        List<byte[]> frames = ring.drain(timestamps);
+        assertEquals(newest, timestamps.get(timestamps.size() - 1));
+        for (int i = 0; i < frames.size(); i++) {
+            long timestamp = timestamps.get(i);
+            assertTrue(i == 0 || timestamps.get(i - 1) < timestamp, "frames out of order: " + timestamps);
+            for (byte b : frames.get(i)) {
+                assertEquals((byte) timestamp, b, "frame " + timestamp + " was overwritten; listed: " + timestamps);
+            }
+        }
+    }
+
+    private static byte[] frame(int length, long timestamp) {
+        byte[] jpeg = new byte[length];
+        Arrays.fill(jpeg, (byte) timestamp);
+        return jpeg;
+    }
+}
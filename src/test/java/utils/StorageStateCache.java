@@ -0,0 +1,245 @@
+package utils;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of authenticated browser storage state (cookies, localStorage and sessionStorage) so scenarios that merely
+ * need a logged-in user can skip the UI login.
+ * <p>
+ * A state is saved once per environment and account to {@code storage.state.dir} (default
+ * {@code target/storage-state}) as {@code <env>_<account>.json}. It is considered expired after
+ * {@code storage.state.ttl.minutes} or when any saved cookie has expired; callers should also
+ * {@link #invalidate(String) invalidate} it when the restored session turns out not to be logged in.
+ * <p>
+ * On Chromium browsers the state is injected through CDP before the first navigation, so a restored scenario
+ * starts with a single page load. Other browsers fall back to loading the origin first to set cookies and storage.
+ */
+public class StorageStateCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageStateCache.class);
+
+    private static final Path STATE_DIR = Paths.get(EnvironmentManager.get("storage.state.dir", "target/storage-state"));
+    private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(Long.parseLong(EnvironmentManager.get("storage.state.ttl.minutes", "30")));
+
+    private static final String READ_STORAGE_SCRIPT =
+            "var s = arguments[0] === 'local' ? window.localStorage : window.sessionStorage;"
+                    + "var out = {}; for (var i = 0; i < s.length; i++) { var k = s.key(i); out[k] = s.getItem(k); }"
+                    + "return JSON.stringify(out);";
+
+    private static final String WRITE_STORAGE_SCRIPT =
+            "var ls = JSON.parse(arguments[0]), ss = JSON.parse(arguments[1]);"
+                    + "Object.keys(ls).forEach(function (k) { window.localStorage.setItem(k, ls[k]); });"
+                    + "Object.keys(ss).forEach(function (k) { window.sessionStorage.setItem(k, ss[k]); });";
+
+    /**
+     * Captures the current page's cookies and storage and saves them for the given account.
+     *
+     * @param driver  the driver, currently on a page of the authenticated origin
+     * @param account the account the state belongs to (e.g., the username)
+     */
+    public static void save(WebDriver driver, String account) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+
+        JSONArray cookies = new JSONArray();
+        for (Cookie cookie : driver.manage().getCookies()) {
+            JSONObject json = new JSONObject()
+                    .put("name", cookie.getName())
+                    .put("value", cookie.getValue())
+                    .put("domain", cookie.getDomain())
+                    .put("path", cookie.getPath())
+                    .put("secure", cookie.isSecure())
+                    .put("httpOnly", cookie.isHttpOnly());
+            if (cookie.getExpiry() != null) {
+                json.put("expiry", cookie.getExpiry().getTime());
+            }
+            if (cookie.getSameSite() != null) {
+                json.put("sameSite", cookie.getSameSite());
+            }
+            cookies.put(json);
+        }
+
+        JSONObject state = new JSONObject()
+                .put("origin", String.valueOf(js.executeScript("return window.location.origin;")))
+                .put("savedAt", System.currentTimeMillis())
+                .put("cookies", cookies)
+                .put("localStorage", new JSONObject(String.valueOf(js.executeScript(READ_STORAGE_SCRIPT, "local"))))
+                .put("sessionStorage", new JSONObject(String.valueOf(js.executeScript(READ_STORAGE_SCRIPT, "session"))));
+
+        Path file = fileFor(account);
+        try {
+            Files.createDirectories(STATE_DIR);
+            Path temp = Files.createTempFile(STATE_DIR, file.getFileName().toString(), ".tmp");
+            Files.writeString(temp, state.toString(2), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("🔐 Storage state saved for '{}' ({} cookies): {}", account, cookies.length(), file);
+        } catch (IOException e) {
+            logger.error("❌ Failed to save storage state for '{}': {}", account, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Restores the saved state for the given account and navigates to the target URL.
+     *
+     * @param driver    the driver of the current scenario, before its first navigation
+     * @param account   the account whose state should be restored
+     * @param targetUrl the page to open once the state is in place
+     * @return true if a valid state was found and the target was opened; false if the caller must log in via UI
+     */
+    public static boolean restore(WebDriver driver, String account, String targetUrl) {
+        Optional<JSONObject> cached = load(account);
+        if (cached.isEmpty()) {
+            return false;
+        }
+        JSONObject state = cached.get();
+
+        if (driver instanceof HasCdp cdp) {
+            restoreWithCdp(driver, cdp, state, targetUrl);
+        } else {
+            restoreWithNavigation(driver, state, targetUrl);
+        }
+        logger.info("🔐 Storage state restored for '{}'", account);
+        return true;
+    }
+
+    /**
+     * Deletes the saved state for the given account, e.g. after the restored session was rejected.
+     *
+     * @param account the account whose state is stale
+     */
+    public static void invalidate(String account) {
+        try {
+            if (Files.deleteIfExists(fileFor(account))) {
+                logger.info("🔐 Storage state for '{}' invalidated", account);
+            }
+        } catch (IOException e) {
+            logger.warn("⚠️ Failed to delete storage state for '{}': {}", account, e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the saved state for an account if it exists and has not expired.
+     */
+    private static Optional<JSONObject> load(String account) {
+        Path file = fileFor(account);
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        try {
+            JSONObject state = new JSONObject(Files.readString(file, StandardCharsets.UTF_8));
+            long now = System.currentTimeMillis();
+            if (now - state.getLong("savedAt") > TTL_MILLIS) {
+                logger.info("🔐 Storage state for '{}' is older than the TTL, refreshing", account);
+                return Optional.empty();
+            }
+            JSONArray cookies = state.getJSONArray("cookies");
+            for (int i = 0; i < cookies.length(); i++) {
+                JSONObject cookie = cookies.getJSONObject(i);
+                if (cookie.has("expiry") && cookie.getLong("expiry") <= now) {
+                    logger.info("🔐 Cookie '{}' for '{}' has expired, refreshing", cookie.getString("name"), account);
+                    return Optional.empty();
+                }
+            }
+            return Optional.of(state);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("⚠️ Ignoring unreadable storage state {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Sets cookies and registers a one-off storage script over CDP, then performs the only navigation.
+     */
+    private static void restoreWithCdp(WebDriver driver, HasCdp cdp, JSONObject state, String targetUrl) {
+        JSONArray cookies = state.getJSONArray("cookies");
+        for (int i = 0; i < cookies.length(); i++) {
+            JSONObject cookie = cookies.getJSONObject(i);
+            Map<String, Object> params = new HashMap<>();
+            params.put("name", cookie.getString("name"));
+            params.put("value", cookie.getString("value"));
+            if (cookie.has("domain")) {
+                params.put("domain", cookie.getString("domain"));
+            } else {
+                params.put("url", state.getString("origin"));
+            }
+            params.put("path", cookie.optString("path", "/"));
+            params.put("secure", cookie.optBoolean("secure"));
+            params.put("httpOnly", cookie.optBoolean("httpOnly"));
+            if (cookie.has("expiry")) {
+                params.put("expires", cookie.getLong("expiry") / 1000.0);
+            }
+            if (cookie.has("sameSite")) {
+                params.put("sameSite", cookie.getString("sameSite"));
+            }
+            cdp.executeCdpCommand("Network.setCookie", params);
+        }
+
+        String source = "(function (ls, ss) {"
+                + "if (window.location.origin !== " + JSONObject.quote(state.getString("origin")) + ") { return; }"
+                + "Object.keys(ls).forEach(function (k) { window.localStorage.setItem(k, ls[k]); });"
+                + "Object.keys(ss).forEach(function (k) { window.sessionStorage.setItem(k, ss[k]); });"
+                + "})(" + state.getJSONObject("localStorage") + ", " + state.getJSONObject("sessionStorage") + ");";
+
+        Map<String, Object> result = cdp.executeCdpCommand("Page.addScriptToEvaluateOnNewDocument", Map.of("source", source));
+        try {
+            driver.get(targetUrl);
+        } finally {
+            Object identifier = result.get("identifier");
+            if (identifier != null) {
+                cdp.executeCdpCommand("Page.removeScriptToEvaluateOnNewDocument", Map.of("identifier", identifier));
+            }
+        }
+    }
+
+    /**
+     * Opens the saved origin to set cookies and storage through WebDriver, then navigates to the target.
+     */
+    private static void restoreWithNavigation(WebDriver driver, JSONObject state, String targetUrl) {
+        driver.get(state.getString("origin"));
+
+        JSONArray cookies = state.getJSONArray("cookies");
+        for (int i = 0; i < cookies.length(); i++) {
+            JSONObject cookie = cookies.getJSONObject(i);
+            Cookie.Builder builder = new Cookie.Builder(cookie.getString("name"), cookie.getString("value"))
+                    .domain(cookie.optString("domain", null))
+                    .path(cookie.optString("path", "/"))
+                    .isSecure(cookie.optBoolean("secure"))
+                    .isHttpOnly(cookie.optBoolean("httpOnly"));
+            if (cookie.has("expiry")) {
+                builder.expiresOn(new Date(cookie.getLong("expiry")));
+            }
+            if (cookie.has("sameSite")) {
+                builder.sameSite(cookie.getString("sameSite"));
+            }
+            driver.manage().addCookie(builder.build());
+        }
+
+        ((JavascriptExecutor) driver).executeScript(WRITE_STORAGE_SCRIPT,
+                state.getJSONObject("localStorage").toString(), state.getJSONObject("sessionStorage").toString());
+        driver.get(targetUrl);
+    }
+
+    private static Path fileFor(String account) {
+        String env = EnvironmentManager.currentEnv();
+        String name = (env + "_" + account).replaceAll("[^a-zA-Z0-9-_.]", "_");
+        return STATE_DIR.resolve(name + ".json");
+    }
+}
@@ -0,0 +1,210 @@
+package utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Utility class for reading host resource figures such as available memory and per-process memory.
+ * <p>
+ * On Linux the values are read from {@code /proc/meminfo}, which reflects memory that can actually be
+ * handed to new processes (including reclaimable page cache). On other platforms the JVM's
+ * {@link com.sun.management.OperatingSystemMXBean} is used as a fallback.
+ */
+public class SystemResources {
+
+    private static final Logger logger = LoggerFactory.getLogger(SystemResources.class);
+    private static final Path MEMINFO = Paths.get("/proc/meminfo");
+
+    /**
+     * Returns the amount of memory currently available for new processes, in megabytes.
+     *
+     * @return available memory in MB
+     */
+    public static long availableMemoryMb() {
+        long kb = readMeminfoKb("MemAvailable");
+        if (kb >= 0) {
+            return kb / 1024;
+        }
+        return osBean().getFreeMemorySize() / (1024 * 1024);
+    }
+
+    /**
+     * Returns the total physical memory of the host, in megabytes.
+     *
+     * @return total memory in MB
+     */
+    public static long totalMemoryMb() {
+        long kb = readMeminfoKb("MemTotal");
+        if (kb >= 0) {
+            return kb / 1024;
+        }
+        return osBean().getTotalMemorySize() / (1024 * 1024);
+    }
+
+    /**
+     * Finds the root process whose command line contains the given argument, e.g. a browser's unique
+     * {@code --user-data-dir=...}. Child processes inheriting the argument are skipped.
+     *
+     * @param argument the command-line fragment to look for
+     * @return the matching root process, if any
+     */
+    public static Optional<ProcessHandle> findProcessByArgument(String argument) {
+        List<ProcessHandle> matches = ProcessHandle.allProcesses()
+                .filter(p -> p.info().commandLine().map(c -> c.contains(argument)).orElse(false))
+                .toList();
+        return matches.stream()
+                .filter(p -> p.parent().map(parent -> !matches.contains(parent)).orElse(true))
+                .findFirst();
+    }
+
+    /**
+     * Returns the resident memory of a process and all of its descendants, in megabytes.
+     * Only available on Linux; returns -1 elsewhere or if the process is gone.
+     * <p>
+     * Pages shared between the processes (e.g., Chrome's renderers and its browser process) are counted once per
+     * process, so this is an upper bound; see {@link #processTreePssMb(ProcessHandle)} for the tree's real share.
+     *
+     * @param root the root process
+     * @return total RSS in MB, or -1 if unavailable
+     */
+    public static long processTreeRssMb(ProcessHandle root) {
+        long totalKb = Stream.concat(Stream.of(root), root.descendants())
+                .mapToLong(p -> readProcKb(p.pid(), "status", "VmRSS"))
+                .filter(kb -> kb >= 0)
+                .sum();
+        return root.isAlive() ? totalKb / 1024 : -1;
+    }
+
+    /**
+     * Returns the proportional set size of a process and all of its descendants, in megabytes: each shared page is
+     * split between the processes mapping it, so the sum is the memory the tree actually occupies.
+     * Only available on Linux; returns -1 elsewhere or if the process is gone.
+     *
+     * @param root the root process
+     * @return total PSS in MB, or -1 if unavailable
+     */
+    public static long processTreePssMb(ProcessHandle root) {
+        long totalKb = Stream.concat(Stream.of(root), root.descendants())
+                .mapToLong(p -> processPssKb(p.pid()))
+                .filter(kb -> kb >= 0)
+                .sum();
+        return root.isAlive() ? totalKb / 1024 : -1;
+    }
+
+    /**
+     * Returns the proportional set size of a single process from {@code /proc/<pid>/smaps_rollup}, in kilobytes,
+     * falling back to its RSS where that file is unavailable (kernels before 4.14).
+     * Only available on Linux; returns -1 elsewhere or if the process is gone.
+     *
+     * @param pid the process id
+     * @return PSS in kB, or -1 if unavailable
+     */
+    public static long processPssKb(long pid) {
+        long pss = readProcKb(pid, "smaps_rollup", "Pss");
+        return pss >= 0 ? pss : processRssKb(pid);
+    }
+
+    /**
+     * Returns the resident memory of a single process, in kilobytes.
+     * Only available on Linux; returns -1 elsewhere or if the process is gone.
+     *
+     * @param pid the process id
+     * @return RSS in kB, or -1 if unavailable
+     */
+    public static long processRssKb(long pid) {
+        return readProcKb(pid, "status", "VmRSS");
+    }
+
+    /**
+     * Returns the CPU time a process has used so far (user + system), in clock ticks, from {@code /proc/<pid>/stat}.
+     * Only available on Linux; returns -1 elsewhere or if the process is gone.
+     *
+     * @param pid the process id
+     * @return consumed CPU time in clock ticks, or -1 if unavailable
+     */
+    public static long processCpuTicks(long pid) {
+        try {
+            String stat = Files.readString(Paths.get("/proc", String.valueOf(pid), "stat"));
+            // The command name may contain spaces and parentheses; the fixed fields start after the last ')'
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+            // Fields 14 (utime) and 15 (stime), counted from 1 including pid and comm
+            return Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the number of open file descriptors of a process.
+     * Only available on Linux for processes of the same user; returns -1 otherwise.
+     *
+     * @param pid the process id
+     * @return open file descriptor count, or -1 if unavailable
+     */
+    public static long openFileDescriptors(long pid) {
+        try (Stream<Path> fds = Files.list(Paths.get("/proc", String.valueOf(pid), "fd"))) {
+            return fds.count();
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Reads a single value (in kB) from a per-process file such as {@code /proc/<pid>/status}.
+     *
+     * @param pid  the process id
+     * @param file the file below {@code /proc/<pid>} (e.g., "status", "smaps_rollup")
+     * @param key  the key (e.g., "VmRSS", "Pss")
+     * @return the value in kB, or -1 if unavailable
+     */
+    private static long readProcKb(long pid, String file, String key) {
+        Path path = Paths.get("/proc", String.valueOf(pid), file);
+        try {
+            for (String line : Files.readAllLines(path)) {
+                if (line.startsWith(key + ":")) {
+                    return Long.parseLong(line.substring(key.length() + 1).trim().split("\\s+")[0]);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+        return -1;
+    }
+
+    /**
+     * Reads a single value (in kB) from {@code /proc/meminfo}.
+     *
+     * @param key the meminfo key (e.g., "MemAvailable")
+     * @return the value in kB, or -1 if unavailable
+     */
+    private static long readMeminfoKb(String key) {
+        if (!Files.isReadable(MEMINFO)) {
+            return -1;
+        }
+        try {
+            List<String> lines = Files.readAllLines(MEMINFO);
+            for (String line : lines) {
+                if (line.startsWith(key + ":")) {
+                    String value = line.substring(key.length() + 1).trim().split("\\s+")[0];
+                    return Long.parseLong(value);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            logger.debug("⚠️ Could not read {} from {}: {}", key, MEMINFO, e.getMessage());
+        }
+        return -1;
+    }
+
+    private static com.sun.management.OperatingSystemMXBean osBean() {
+        return (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    }
+}
@@ -0,0 +1,450 @@
+package utils;
+
+import io.qameta.allure.Allure;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Compares screenshots against stored baselines, tile by tile.
+ * <p>
+ * Images are split into {@code visual.tile.size} square tiles and each tile is hashed. Tiles whose hash matches
+ * the baseline's are skipped; only changed tiles get a per-pixel diff, where a pixel counts as different if any
+ * colour channel differs by more than {@code visual.pixel.tolerance}. A check fails when the share of different
+ * pixels exceeds {@code visual.max.diff.ratio}. The baseline's tile hashes are cached next to the build output, so
+ * the baseline PNG is only decoded when a tile actually changed. Tiles are compared in parallel on a dedicated
+ * fork-join pool sized by {@code visual.parallelism}.
+ * <p>
+ * Baselines live under {@code visual.baseline.dir/<browser>/<window.size>/<name>.png}; a missing baseline is
+ * created from the current screenshot, and {@code visual.update.baselines=true} rewrites existing ones.
+ * Run {@code ./gradlew visualBenchmark} for a comparisons-per-second benchmark.
+ */
+public class VisualComparator {
+
+    private static final Logger logger = LoggerFactory.getLogger(VisualComparator.class);
+
+    private static final Path BASELINE_DIR = Paths.get(EnvironmentManager.get("visual.baseline.dir", "src/test/resources/visual-baselines"));
+    private static final Path CACHE_DIR = Paths.get(EnvironmentManager.get("visual.cache.dir", "build/visual-cache"));
+    private static final Path DIFF_DIR = Paths.get(EnvironmentManager.get("visual.diff.dir", "target/visual-diffs"));
+    private static final int TILE_SIZE = Integer.parseInt(EnvironmentManager.get("visual.tile.size", "32"));
+    private static final int PIXEL_TOLERANCE = Integer.parseInt(EnvironmentManager.get("visual.pixel.tolerance", "16"));
+    private static final double MAX_DIFF_RATIO = Double.parseDouble(EnvironmentManager.get("visual.max.diff.ratio", "0.001"));
+    private static final boolean UPDATE_BASELINES = Boolean.parseBoolean(EnvironmentManager.get("visual.update.baselines", "false"));
+
+    private static final ForkJoinPool pool = new ForkJoinPool(Integer.parseInt(EnvironmentManager.get("visual.parallelism",
+            String.valueOf(Runtime.getRuntime().availableProcessors()))));
+
+    private static final int DIFF_COLOR = 0xFF0000;
+    private static final int TILE_BORDER_COLOR = 0xFF00FF;
+
+    /**
+     * Outcome of a visual comparison.
+     *
+     * @param matches          whether the image is within tolerance of the baseline
+     * @param baselineCreated  whether the baseline was missing (or updated) and written from the actual image
+     * @param changedTiles     tiles whose hash differed from the baseline
+     * @param totalTiles       total number of tiles
+     * @param differentPixels  pixels outside the tolerance
+     * @param diffRatio        share of different pixels
+     * @param diffImage        the written diff image, or null if none was written
+     * @param millis           time spent comparing
+     * @param message          a human-readable summary
+     */
+    public record Result(boolean matches, boolean baselineCreated, int changedTiles, int totalTiles,
+                         long differentPixels, double diffRatio, Path diffImage, long millis, String message) {
+    }
+
+    /**
+     * Tile grid and per-tile hashes of an image.
+     */
+    private record TileHashes(int width, int height, int tileSize, long[] hashes) {
+
+        int columns() {
+            return (width + tileSize - 1) / tileSize;
+        }
+
+        boolean compatible(TileHashes other) {
+            return width == other.width && height == other.height && tileSize == other.tileSize;
+        }
+    }
+
+    /**
+     * Per-pixel comparison of the changed tiles.
+     */
+    private record TileDiff(long differentPixels, int[] diffPixels) {
+    }
+
+    /**
+     * Takes a screenshot and compares it to the named baseline for the configured browser and window size.
+     * On a mismatch the expected, actual and diff images are attached to the Allure report.
+     *
+     * @param driver the WebDriver to take the screenshot from
+     * @param name   the baseline name (e.g., "login-page")
+     * @return the comparison result
+     */
+    public static Result check(WebDriver driver, String name) {
+        if (!(driver instanceof TakesScreenshot ts)) {
+            throw new IllegalStateException("Driver does not support taking screenshots");
+        }
+        String safeName = name.replaceAll("[^a-zA-Z0-9._-]", "_");
+        Path variant = Paths.get(EnvironmentManager.get("browser", "chrome").toLowerCase(),
+                EnvironmentManager.get("window.size", "1920,1080").replace(',', 'x'));
+        Path baselineFile = BASELINE_DIR.resolve(variant).resolve(safeName + ".png");
+        Path hashFile = CACHE_DIR.resolve(variant).resolve(safeName + ".tiles");
+
+        try {
+            byte[] png = ts.getScreenshotAs(OutputType.BYTES);
+            BufferedImage actual = ImageIO.read(new ByteArrayInputStream(png));
+
+            if (UPDATE_BASELINES || !Files.exists(baselineFile)) {
+                Files.createDirectories(baselineFile.getParent());
+                Files.write(baselineFile, png);
+                writeHashes(hashFile, hash(rgb(actual), actual.getWidth(), actual.getHeight()));
+                logger.info("🖼️ Visual baseline written: {}", baselineFile);
+                return new Result(true, true, 0, 0, 0, 0, null, 0, "Baseline written to " + baselineFile);
+            }
+
+            Result result = compare(actual, baselineFile, hashFile,
+                    DIFF_DIR.resolve(variant).resolve(safeName + "-diff.png"));
+            if (!result.matches()) {
+                Allure.addAttachment("Visual expected - " + name, "image/png", Files.newInputStream(baselineFile), "png");
+                Allure.addAttachment("Visual actual - " + name, "image/png", new ByteArrayInputStream(png), "png");
+                if (result.diffImage() != null) {
+                    Allure.addAttachment("Visual diff - " + name, "image/png", Files.newInputStream(result.diffImage()), "png");
+                }
+            }
+            logger.info("🖼️ Visual check '{}': {}", name, result.message());
+            return result;
+        } catch (IOException e) {
+            throw new RuntimeException("Visual check failed for " + name, e);
+        }
+    }
+
+    /**
+     * Compares an image to a baseline file, using (and refreshing) the baseline's cached tile hashes.
+     *
+     * @param actual       the actual image
+     * @param baselineFile the baseline PNG
+     * @param hashFile     the cache file for the baseline's tile hashes
+     * @param diffFile     where to write the diff image if the images do not match
+     * @return the comparison result
+     * @throws IOException if the baseline cannot be read or the diff cannot be written
+     */
+    public static Result compare(BufferedImage actual, Path baselineFile, Path hashFile, Path diffFile) throws IOException {
+        long start = System.nanoTime();
+        int width = actual.getWidth();
+        int height = actual.getHeight();
+        int[] actualPixels = rgb(actual);
+        TileHashes actualHashes = hash(actualPixels, width, height);
+
+        TileHashes baselineHashes = readHashes(hashFile, baselineFile);
+        int[] baselinePixels = null;
+        if (baselineHashes == null) {
+            BufferedImage baseline = ImageIO.read(baselineFile.toFile());
+            baselinePixels = rgb(baseline);
+            baselineHashes = hash(baselinePixels, baseline.getWidth(), baseline.getHeight());
+            writeHashes(hashFile, baselineHashes);
+        }
+        if (!actualHashes.compatible(baselineHashes)) {
+            return new Result(false, false, 0, actualHashes.hashes().length, (long) width * height, 1.0, null,
+                    millisSince(start), String.format("Size %dx%d differs from baseline %dx%d", width, height,
+                    baselineHashes.width(), baselineHashes.height()));
+        }
+
+        List<Integer> changed = changedTiles(actualHashes, baselineHashes);
+        if (changed.isEmpty()) {
+            return summarize(actualHashes, changed, 0, null, start);
+        }
+
+        if (baselinePixels == null) {
+            baselinePixels = rgb(ImageIO.read(baselineFile.toFile()));
+        }
+        TileDiff diff = diffTiles(actualPixels, baselinePixels, actualHashes, changed);
+        Path diffImage = null;
+        if (diff.differentPixels() > MAX_DIFF_RATIO * width * height) {
+            diffImage = writeDiffImage(actualPixels, diff.diffPixels(), actualHashes, changed, diffFile);
+        }
+        return summarize(actualHashes, changed, diff.differentPixels(), diffImage, start);
+    }
+
+    /**
+     * Compares two in-memory images.
+     *
+     * @param actual   the actual image
+     * @param expected the expected image
+     * @return the comparison result; no diff image is written
+     */
+    public static Result compare(BufferedImage actual, BufferedImage expected) {
+        long start = System.nanoTime();
+        int[] actualPixels = rgb(actual);
+        int[] expectedPixels = rgb(expected);
+        TileHashes actualHashes = hash(actualPixels, actual.getWidth(), actual.getHeight());
+        TileHashes expectedHashes = hash(expectedPixels, expected.getWidth(), expected.getHeight());
+        if (!actualHashes.compatible(expectedHashes)) {
+            return new Result(false, false, 0, actualHashes.hashes().length, (long) actual.getWidth() * actual.getHeight(),
+                    1.0, null, millisSince(start), "Image sizes differ");
+        }
+        List<Integer> changed = changedTiles(actualHashes, expectedHashes);
+        long differentPixels = changed.isEmpty() ? 0
+                : diffTiles(actualPixels, expectedPixels, actualHashes, changed).differentPixels();
+        return summarize(actualHashes, changed, differentPixels, null, start);
+    }
+
+    private static Result summarize(TileHashes hashes, List<Integer> changed, long differentPixels, Path diffImage, long start) {
+        double ratio = (double) differentPixels / ((long) hashes.width() * hashes.height());
+        boolean matches = ratio <= MAX_DIFF_RATIO;
+        String message = String.format("%s – %d/%d tiles changed, %d pixels (%.4f%%) differ, max %.4f%%",
+                matches ? "match" : "MISMATCH", changed.size(), hashes.hashes().length, differentPixels,
+                ratio * 100, MAX_DIFF_RATIO * 100);
+        return new Result(matches, false, changed.size(), hashes.hashes().length, differentPixels, ratio, diffImage,
+                millisSince(start), message);
+    }
+
+    private static List<Integer> changedTiles(TileHashes actual, TileHashes baseline) {
+        List<Integer> changed = new ArrayList<>();
+        for (int tile = 0; tile < actual.hashes().length; tile++) {
+            if (actual.hashes()[tile] != baseline.hashes()[tile]) {
+                changed.add(tile);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Diffs the changed tiles in parallel. The returned pixel array holds {@link #DIFF_COLOR} for every pixel
+     * outside the tolerance and 0 elsewhere.
+     */
+    private static TileDiff diffTiles(int[] actual, int[] baseline, TileHashes grid, List<Integer> changed) {
+        int[] diffPixels = new int[actual.length];
+        long different = pool.submit(() -> changed.parallelStream().mapToLong(tile -> {
+            long count = 0;
+            int x0 = (tile % grid.columns()) * grid.tileSize();
+            int y0 = (tile / grid.columns()) * grid.tileSize();
+            int x1 = Math.min(x0 + grid.tileSize(), grid.width());
+            int y1 = Math.min(y0 + grid.tileSize(), grid.height());
+            for (int y = y0; y < y1; y++) {
+                for (int i = y * grid.width() + x0, end = y * grid.width() + x1; i < end; i++) {
+                    if (exceedsTolerance(actual[i], baseline[i])) {
+                        diffPixels[i] = DIFF_COLOR;
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }).sum()).join();
+        return new TileDiff(different, diffPixels);
+    }
+
+    private static boolean exceedsTolerance(int a, int b) {
+        if (((a ^ b) & 0xFFFFFF) == 0) {
+            return false;
+        }
+        return Math.abs(((a >> 16) & 0xFF) - ((b >> 16) & 0xFF)) > PIXEL_TOLERANCE
+                || Math.abs(((a >> 8) & 0xFF) - ((b >> 8) & 0xFF)) > PIXEL_TOLERANCE
+                || Math.abs((a & 0xFF) - (b & 0xFF)) > PIXEL_TOLERANCE;
+    }
+
+    /**
+     * Hashes every tile of an image in parallel.
+     */
+    private static TileHashes hash(int[] pixels, int width, int height) {
+        int columns = (width + TILE_SIZE - 1) / TILE_SIZE;
+        int rows = (height + TILE_SIZE - 1) / TILE_SIZE;
+        long[] hashes = new long[columns * rows];
+        pool.submit(() -> IntStream.range(0, hashes.length).parallel().forEach(tile -> {
+            int x0 = (tile % columns) * TILE_SIZE;
+            int y0 = (tile / columns) * TILE_SIZE;
+            int x1 = Math.min(x0 + TILE_SIZE, width);
+            int y1 = Math.min(y0 + TILE_SIZE, height);
+            // Two independent lanes halve the multiply dependency chain
+            long h1 = 0xCBF29CE484222325L;
+            long h2 = 0x84222325CBF29CE4L;
+            for (int y = y0; y < y1; y++) {
+                int i = y * width + x0;
+                int end = y * width + x1;
+                for (; i + 1 < end; i += 2) {
+                    h1 = (h1 + (pixels[i] & 0xFFFFFF)) * 0x9E3779B97F4A7C15L;
+                    h2 = (h2 + (pixels[i + 1] & 0xFFFFFF)) * 0x9E3779B97F4A7C15L;
+                }
+                if (i < end) {
+                    h1 = (h1 + (pixels[i] & 0xFFFFFF)) * 0x9E3779B97F4A7C15L;
+                }
+            }
+            long h = h1 ^ Long.rotateLeft(h2, 31);
+            hashes[tile] = h ^ (h >>> 32);
+        })).join();
+        return new TileHashes(width, height, TILE_SIZE, hashes);
+    }
+
+    /**
+     * Returns the image's pixels as packed RGB ints, converting the image only if its raster is not already int-based.
+     */
+    private static int[] rgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB || image.getType() == BufferedImage.TYPE_INT_ARGB) {
+            return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        }
+        BufferedImage converted = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = converted.createGraphics();
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+        return ((DataBufferInt) converted.getRaster().getDataBuffer()).getData();
+    }
+
+    /**
+     * Writes the diff image: a faded copy of the actual image with different pixels in red and changed tiles outlined.
+     */
+    private static Path writeDiffImage(int[] actualPixels, int[] diffPixels, TileHashes grid, List<Integer> changed,
+                                      Path diffFile) throws IOException {
+        BufferedImage image = new BufferedImage(grid.width(), grid.height(), BufferedImage.TYPE_INT_RGB);
+        int[] out = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        for (int i = 0; i < out.length; i++) {
+            out[i] = diffPixels[i] != 0 ? diffPixels[i] : ((actualPixels[i] & 0xFEFEFE) >> 1) + 0x7F7F7F;
+        }
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(new Color(TILE_BORDER_COLOR));
+        for (int tile : changed) {
+            int x = (tile % grid.columns()) * grid.tileSize();
+            int y = (tile / grid.columns()) * grid.tileSize();
+            graphics.drawRect(x, y, grid.tileSize() - 1, grid.tileSize() - 1);
+        }
+        graphics.dispose();
+        Files.createDirectories(diffFile.toAbsolutePath().getParent());
+        ImageIO.write(image, "png", diffFile.toFile());
+        return diffFile;
+    }
+
+    /**
+     * Reads cached tile hashes, or returns null if they are missing, older than the baseline or for another tile size.
+     */
+    private static TileHashes readHashes(Path hashFile, Path baselineFile) throws IOException {
+        if (!Files.exists(hashFile)
+                || Files.getLastModifiedTime(hashFile).compareTo(Files.getLastModifiedTime(baselineFile)) < 0) {
+            return null;
+        }
+        try (DataInputStream input = new DataInputStream(Files.newInputStream(hashFile))) {
+            int width = input.readInt();
+            int height = input.readInt();
+            int tileSize = input.readInt();
+            if (tileSize != TILE_SIZE) {
+                return null;
+            }
+            long[] hashes = new long[input.readInt()];
+            for (int i = 0; i < hashes.length; i++) {
+                hashes[i] = input.readLong();
+            }
+            return new TileHashes(width, height, tileSize, hashes);
+        }
+    }
+
+    private static void writeHashes(Path hashFile, TileHashes hashes) throws IOException {
+        Files.createDirectories(hashFile.toAbsolutePath().getParent());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeInt(hashes.width());
+            output.writeInt(hashes.height());
+            output.writeInt(hashes.tileSize());
+            output.writeInt(hashes.hashes().length);
+            for (long hash : hashes.hashes()) {
+                output.writeLong(hash);
+            }
+        }
+        Files.write(hashFile, bytes.toByteArray());
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    /**
+     * Benchmarks the tiled comparison of a baseline file against a naive full per-pixel comparison, both starting
+     * from PNG bytes as a real check does, on synthetic 1920x1080 pages with and without changes.
+     * Usage: {@code VisualComparator [comparisons] [changed areas]}.
+     */
+    public static void main(String[] args) throws IOException {
+        int comparisons = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int changedAreas = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        Random random = new Random(42);
+        BufferedImage baseline = new BufferedImage(1920, 1080, BufferedImage.TYPE_INT_RGB);
+        Graphics2D page = baseline.createGraphics();
+        page.setColor(Color.WHITE);
+        page.fillRect(0, 0, 1920, 1080);
+        page.setColor(new Color(0x2B3A4A));
+        page.fillRect(0, 0, 1920, 80);
+        for (int i = 0; i < 400; i++) {
+            page.setColor(new Color(random.nextInt(0x1000000)));
+            page.fillRect(random.nextInt(1800), 100 + random.nextInt(950), 20 + random.nextInt(100), 4 + random.nextInt(12));
+        }
+        page.dispose();
+
+        BufferedImage changed = new BufferedImage(1920, 1080, BufferedImage.TYPE_INT_RGB);
+        changed.setData(baseline.getData());
+        Graphics2D graphics = changed.createGraphics();
+        graphics.setColor(Color.BLACK);
+        for (int i = 0; i < changedAreas; i++) {
+            graphics.fillRect(random.nextInt(1920 - TILE_SIZE), random.nextInt(1080 - TILE_SIZE), TILE_SIZE / 2, TILE_SIZE / 2);
+        }
+        graphics.dispose();
+
+        Path dir = Files.createTempDirectory("visual-benchmark");
+        Path baselineFile = dir.resolve("baseline.png");
+        Path hashFile = dir.resolve("baseline.tiles");
+        ImageIO.write(baseline, "png", baselineFile.toFile());
+
+        for (BufferedImage actual : List.of(baseline, changed)) {
+            ByteArrayOutputStream png = new ByteArrayOutputStream();
+            ImageIO.write(actual, "png", png);
+            byte[] bytes = png.toByteArray();
+
+            long start = System.nanoTime();
+            long naiveDifferent = 0;
+            for (int n = 0; n < comparisons; n++) {
+                int[] a = rgb(ImageIO.read(new ByteArrayInputStream(bytes)));
+                int[] b = rgb(ImageIO.read(baselineFile.toFile()));
+                naiveDifferent = 0;
+                for (int i = 0; i < a.length; i++) {
+                    if (exceedsTolerance(a[i], b[i])) {
+                        naiveDifferent++;
+                    }
+                }
+            }
+            double naiveSeconds = (System.nanoTime() - start) / 1e9;
+
+            // The first comparison caches the baseline's tile hashes, as the first check of a baseline does
+            compare(ImageIO.read(new ByteArrayInputStream(bytes)), baselineFile, hashFile, dir.resolve("diff.png"));
+            start = System.nanoTime();
+            Result result = null;
+            for (int n = 0; n < comparisons; n++) {
+                result = compare(ImageIO.read(new ByteArrayInputStream(bytes)), baselineFile, hashFile, dir.resolve("diff.png"));
+            }
+            double tiledSeconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%s page:%n", actual == baseline ? "Unchanged" : "Changed");
+            System.out.printf("  naive per-pixel: %6.1f comparisons/s (%d pixels differ)%n", comparisons / naiveSeconds, naiveDifferent);
+            System.out.printf("  tiled (%dpx tiles, %d threads): %6.1f comparisons/s (%s)%n", TILE_SIZE,
+                    pool.getParallelism(), comparisons / tiledSeconds, result.message());
+        }
+        System.out.println("Diff image: " + dir.resolve("diff.png"));
+    }
+}
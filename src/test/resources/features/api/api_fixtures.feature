@@ -0,0 +1,18 @@
+@api @nobrowser
+Feature: API fixtures
+
+  Background:
+    Given the stand-in API server is running
+
+  Scenario: Create a single fixture over the API
+    When a user fixture "alice" is created
+    Then the stand-in API server should contain the created users
+
+  Scenario: Create independent fixtures in parallel
+    When 8 user fixtures are created in parallel
+    Then the stand-in API server should contain the created users
+
+  Scenario: Fixtures are deleted on cleanup
+    Given 3 user fixtures are created in parallel
+    When the API fixtures are cleaned up
+    Then the created users should no longer exist
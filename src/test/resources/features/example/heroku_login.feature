@@ -1,4 +1,4 @@
-@heroku
+@heroku @budget:lcp<4000 @budget:cls<0.1
 Feature: Login to Heroku
 
   @parallel
@@ -13,4 +13,15 @@ Feature: Login to Heroku
     Given the user is on the Heroku login page
     When the user enters incorrect username and password
     And clicks on the login button
-    Then the user should see the error message
\ No newline at end of file
+    Then the user should see the error message
+
+  @parallel
+  Scenario: Logged-in user logs out
+    Given the user is logged in with valid credentials
+    When the user clicks the logout button
+    Then the user should see the logout message
+
+  @visual
+  Scenario: Login page matches its visual baseline
+    Given the user is on the stand-in login page
+    Then the page should match the visual baseline "stub-login-page"
\ No newline at end of file